@@ -0,0 +1,113 @@
+/**
+ * - AStarSolver searches a HexGrid for the shortest path from the start tile to the end tile using the A* algorithm
+ * - It only works with cell numbers, so it does not need a window and does not load any Swing or AWT classes
+ * - The state of the search is kept in a SearchContext, the HexGrid itself is never changed
+ * - The context remembers the cell each cell was reached from, so when the end is found the path to it is followed back and returned as a HexPath
+ * - The context and the queue are reused by every call to solve, so one loaded grid can answer many start/end queries one after another
+ *   without allocating or clearing anything the size of the grid
+ * - With an IndexedIntPriorityQueue the cells are never boxed
+ * - A SearchListener can be attached to watch the search, the Maze window uses this to colour its hexagons
+ * - The g of a cell is what the steps to it cost, every step costs what the cell it steps onto costs (see HexGrid.getCost), 1 on a grid without a cost layer
+ *   No step costs less than 1, so the cube distance to the end is never more than what is left and the path is still the cheapest one,
+ *   with every queue: a cell that is reached again by a cheaper route while it is enqueued is moved forward, or given to a queue without decreaseKey a second time
+ * - With an epsilon above 0 it is weighted A*: the priority is g + (1 + epsilon) * h, so cells that look closer to the end are taken first
+ *   and far fewer cells are expanded, the path costs at most (1 + epsilon) times the cheapest one (a cell is never expanded twice)
+ * - The heuristic is the cube distance to the end unless it is given a Heuristic, such as one from a Landmarks table, which is sharper
+ *   on mazes whose walls make the paths much longer than the straight line, so fewer cells are expanded for the same path
+ * - The search itself is an IncrementalSearch that is run to the end in one call, so a sliced search finds the same paths
+ * - It is the PathFinder for the default "astar" mode
+ *
+ * @author Melissa Tran
+ */
+
+public class AStarSolver implements PathFinder {
+
+	// Attributes
+	private HexGrid grid;
+	private IncrementalSearch search;	// keeps the queue, the context, the epsilon and the heuristic
+
+
+	/**
+	 * Creates a solver for a grid
+	 * @param: grid - the maze to search
+	 * @param: queue - the priority queue to store the cells in, if it is an IndexedPriorityQueueADT an enqueued cell is moved forward when a cheaper route to it is found, otherwise it is enqueued again
+	 */
+	public AStarSolver(HexGrid grid, PriorityQueueADT<Integer> queue) {
+		this(grid, queue, new SearchContext(grid.size()));
+	}
+
+
+	/**
+	 * Creates a solver for a grid that keeps its bookkeeping in a context that was already made
+	 * @param: grid - the maze to search
+	 * @param: queue - the priority queue to store the cells in
+	 * @param: context - the context to reuse, it must be at least as big as the grid
+	 */
+	public AStarSolver(HexGrid grid, PriorityQueueADT<Integer> queue, SearchContext context) {
+		this.grid = grid;
+		this.search = new IncrementalSearch(grid, queue, context);
+	}
+
+
+	//Returns the context that holds the steps and parents of the last search
+	public SearchContext getContext() {
+		return search.getContext();
+	}
+
+
+	//Returns how much the heuristic is weighted above 1, 0 unless setEpsilon was called
+	public double getEpsilon() {
+		return search.getEpsilon();
+	}
+
+
+	/**
+	 * Sets how much the heuristic is weighted above 1, the paths found cost at most (1 + epsilon) times the cheapest ones
+	 * @param: epsilon - 0 for the cheapest paths (the default), or more to expand fewer cells
+	 * @exception: IllegalArgumentException - if epsilon is less than 0
+	 */
+	public void setEpsilon(double epsilon) {
+		search.setEpsilon(epsilon);
+	}
+
+
+	//Returns the heuristic the searches use, null for the cube distance
+	public Heuristic getHeuristic() {
+		return search.getHeuristic();
+	}
+
+
+	/**
+	 * Sets the heuristic the searches use, it must never say more than what the rest of a path really costs or the paths are not the cheapest ones
+	 * @param: heuristic - eg. Landmarks.newHeuristic(), a heuristic can only be given to one solver, null for the cube distance (the default)
+	 */
+	public void setHeuristic(Heuristic heuristic) {
+		search.setHeuristic(heuristic);
+	}
+
+
+	//Sets the listener that is told about every change to a cell, null for no listener
+	public void setListener(SearchListener listener) {
+		search.setListener(listener);
+	}
+
+
+	//Searches from the start tile of the grid to the end tile of the grid
+	public SearchResult solve() {
+		return solve(grid.getStart(), grid.getEnd());
+	}
+
+
+	/**
+	 * Searches for the cheapest path between two cells, or one within (1 + epsilon) of it
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for, or HexGrid.NO_CELL to explore everything reachable from the start
+	 * @return: the statistics of the search and the path to the end, the steps of the result are what the path costs,
+	 *          the end is not found if the start or end is a wall
+	 * @exception: IllegalArgumentException - if there is no start cell
+	 */
+	public SearchResult solve(int start, int end) {
+		return search.solve(start, end);
+	}
+
+}
@@ -0,0 +1,302 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * - This program solves many maze files in one run, without opening any windows, and prints one line of results per maze
+ * - The arguments are maze files or directories (every .txt or binary .hexb file in a directory is solved), followed by any of these options
+ *   "-format csv" or "-format json" for comma separated values with a header line (the default) or one JSON object per line
+ *   "-threads n" for the number of mazes solved at the same time, the default is the number of processors
+ *   "-queue linked", "-queue heap" or "-queue indexed" to pick the priority queue, the same as MazeSolverToo
+ *   "-mode astar", "-mode bidirectional", "-mode jps" or "-mode hpa" to pick the search, the same as MazeSolverToo
+ *   "-epsilon e" to weight the heuristic of the astar mode, the same as MazeSolverToo
+ *   any other argument that starts with "-" is turned down, the same as MazeSolverToo does
+ * - The path length is the number of steps on the path and the path cost is what they cost, the two are only different on a maze with terrain
+ * - Every worker thread loads the next maze on a second thread while it is solving the current one, so reading a file and solving the
+ *   previous one overlap, and at most two mazes per worker are in memory at once
+ * - The lines are printed in the same order as the files were given, no matter which one finishes first
+ *
+ * Eg. java BatchSolver maze0.txt maze1.txt -format json
+ *     java BatchSolver /some/folder/of/mazes -threads 4
+ *
+ * @author Melissa Tran
+ */
+
+public class BatchSolver {
+
+	// The columns of a result line, in order
+	private static final String[] COLUMNS = {"file", "rows", "cols", "end_found", "path_length", "path_cost", "expansions", "enqueues",
+			"peak_queue_size", "load_ms", "solve_ms", "error"};
+
+
+	//This is the main method which is used to run the program
+	public static void main(String[] args) {
+		try {
+			String format = "csv";
+			String queueType = "indexed";
+			String mode = "astar";
+			double epsilon = 0;
+			int threads = Runtime.getRuntime().availableProcessors();
+			List<String> files = new ArrayList<String>();
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-format") && i + 1 < args.length) {
+					format = args[++i];
+				} else if (args[i].equals("-threads") && i + 1 < args.length) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-queue") && i + 1 < args.length) {
+					queueType = args[++i];
+				} else if (args[i].equals("-mode") && i + 1 < args.length) {
+					mode = args[++i];
+				} else if (args[i].equals("-epsilon") && i + 1 < args.length) {
+					epsilon = Double.parseDouble(args[++i]);
+				} else if (args[i].startsWith("-")) {
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+				} else {
+					addMazeFiles(new File(args[i]), files);
+				}
+			}
+			if (files.isEmpty()) {
+				throw new IllegalArgumentException("No maze was provided");
+			}
+			if (!format.equals("csv") && !format.equals("json")) {
+				throw new IllegalArgumentException("Unknown format: " + format);
+			}
+			// the mode and queue type are checked before anything is loaded
+			MazeSolverToo.createQueue(queueType, 1);
+			if (!MazeSolverToo.MODES.contains(mode)) {
+				throw new IllegalArgumentException("Unknown search mode: " + mode);
+			}
+			if (epsilon != 0 && !mode.equals("astar")) {
+				throw new IllegalArgumentException("Only the astar mode can weight its heuristic");
+			}
+			if (!queueType.equals("indexed") && !mode.equals("astar")) {
+				throw new IllegalArgumentException("Only the astar mode can pick its priority queue, the other modes always use the indexed heap");
+			}
+			if (!(epsilon >= 0)) {
+				throw new IllegalArgumentException("Epsilon must be at least 0, not " + epsilon);
+			}
+
+			List<Future<String[]>> rows = solveAll(files, mode, queueType, epsilon, Math.max(1, threads));
+			if (format.equals("csv")) {
+				System.out.println(toCsv(COLUMNS));
+			}
+			for (Future<String[]> row : rows) {
+				System.out.println(format.equals("csv") ? toCsv(row.get()) : toJson(row.get()));
+			}
+
+		//exceptions to be handled
+		} catch (NumberFormatException e) {
+			System.out.println("The number of threads and epsilon must be numbers: " + e.getMessage());
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		} catch (InterruptedException e) {
+			System.out.println("Interrupted while waiting for the mazes to be solved");
+		} catch (ExecutionException e) {
+			System.out.println(e.getCause());
+		}
+	}
+
+
+	/**
+	 * Solves every file on a pool of worker threads, each worker loads its next file while it solves the current one
+	 * @param: files - the maze files to solve
+	 * @param: mode - the search mode each solver uses
+	 * @param: queueType - the type of priority queue each solver uses
+	 * @param: epsilon - how much an astar solver weights its heuristic above 1
+	 * @param: threads - the number of worker threads
+	 * @return: one result line per file, in the same order as the files, each one is done once its maze is solved
+	 */
+	static List<Future<String[]>> solveAll(final List<String> files, final String mode, final String queueType, final double epsilon, int threads) {
+		final List<CompletableFuture<String[]>> rows = new ArrayList<CompletableFuture<String[]>>();
+		for (int i = 0; i < files.size(); i++) {
+			rows.add(new CompletableFuture<String[]>());
+		}
+		final AtomicInteger nextFile = new AtomicInteger();
+		final AtomicInteger running = new AtomicInteger(threads);
+		final ExecutorService loaders = Executors.newFixedThreadPool(threads, daemonThreads());
+		ExecutorService workers = Executors.newFixedThreadPool(threads, daemonThreads());
+
+		for (int t = 0; t < threads; t++) {
+			workers.execute(new Runnable() {
+				public void run() {
+					int current = nextFile.getAndIncrement();
+					Future<Loaded> loading = current < files.size() ? loaders.submit(new Loader(files.get(current))) : null;
+					while (loading != null) {
+						// start loading the next file before solving this one
+						int next = nextFile.getAndIncrement();
+						Future<Loaded> nextLoading = next < files.size() ? loaders.submit(new Loader(files.get(next))) : null;
+						try {
+							rows.get(current).complete(solve(files.get(current), loading, mode, queueType, epsilon));
+						} catch (Throwable e) {
+							rows.get(current).completeExceptionally(e);
+						}
+						current = next;
+						loading = nextLoading;
+					}
+					// the loaders are only stopped once no worker can give them another file
+					if (running.decrementAndGet() == 0) {
+						loaders.shutdown();
+					}
+				}
+			});
+		}
+		workers.shutdown();
+		return new ArrayList<Future<String[]>>(rows);
+	}
+
+
+	//Waits for a maze to be loaded, solves it and returns its result line
+	private static String[] solve(String file, Future<Loaded> loading, String mode, String queueType, double epsilon) {
+		String[] row = new String[COLUMNS.length];
+		Arrays.fill(row, "");
+		row[0] = file;
+		try {
+			Loaded loaded = loading.get();
+			HexGrid grid = loaded.grid;
+			row[1] = String.valueOf(grid.getRows());
+			row[2] = String.valueOf(grid.getCols());
+			row[9] = millis(loaded.nanos);
+
+			long begin = System.nanoTime();
+			SearchResult result = MazeSolverToo.createSolver(mode, queueType, epsilon, grid).solve(grid.getStart(), grid.getEnd());
+			row[10] = millis(System.nanoTime() - begin);
+			row[3] = String.valueOf(result.isEndFound());
+			row[4] = String.valueOf(result.isEndFound() ? result.getPath().length() : -1);
+			row[5] = String.valueOf(result.getSteps());
+			row[6] = String.valueOf(result.getExpansions());
+			row[7] = String.valueOf(result.getEnqueues());
+			row[8] = String.valueOf(result.getPeakQueueSize());
+		} catch (ExecutionException e) {
+			row[11] = message(e.getCause());
+		} catch (InterruptedException e) {
+			row[11] = "interrupted";
+		} catch (RuntimeException e) {
+			row[11] = message(e);
+		}
+		return row;
+	}
+
+
+	//Adds a maze file, or every .txt and .hexb file in a directory (sorted by name), to the list of files
+	private static void addMazeFiles(File file, List<String> files) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children == null) {
+				return;
+			}
+			Arrays.sort(children);
+			for (File child : children) {
+				if (child.isFile() && (child.getName().endsWith(".txt") || child.getName().endsWith(".hexb"))) {
+					files.add(child.getPath());
+				}
+			}
+		} else {
+			files.add(file.getPath());
+		}
+	}
+
+
+	//Returns a line of comma separated values, values with a comma, quote or line break are quoted
+	private static String toCsv(String[] values) {
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			String value = values[i];
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+				value = '"' + value.replace("\"", "\"\"") + '"';
+			}
+			line.append(value);
+		}
+		return line.toString();
+	}
+
+
+	//Returns a line with one JSON object, the file and error are strings, a missing number is null and the rest are written as they are
+	private static String toJson(String[] values) {
+		StringBuilder line = new StringBuilder("{");
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append('"').append(COLUMNS[i]).append("\":");
+			String value = values[i];
+			if (value.isEmpty() && i != 0 && i != values.length - 1) {
+				line.append("null");
+			} else if (i == 0 || i == values.length - 1) {
+				line.append('"');
+				for (char c : value.toCharArray()) {
+					if (c == '"' || c == '\\') {
+						line.append('\\').append(c);
+					} else if (c < ' ') {
+						line.append(String.format("\\u%04x", (int) c));
+					} else {
+						line.append(c);
+					}
+				}
+				line.append('"');
+			} else {
+				line.append(value);
+			}
+		}
+		return line.append('}').toString();
+	}
+
+
+	//Returns the message of an exception, or its class name if it has no message
+	private static String message(Throwable e) {
+		return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+	}
+
+
+	//Returns a number of nanoseconds as milliseconds with three decimals
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+
+	//Returns a thread factory for threads that do not stop the program from exiting
+	private static ThreadFactory daemonThreads() {
+		return new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+
+	// A loaded maze and how long it took to load
+	private static class Loaded {
+		private final HexGrid grid;
+		private final long nanos;
+
+		private Loaded(HexGrid grid, long nanos) {
+			this.grid = grid;
+			this.nanos = nanos;
+		}
+	}
+
+
+	// Loads one maze file on a loader thread
+	private static class Loader implements Callable<Loaded> {
+		private final String file;
+
+		private Loader(String file) {
+			this.file = file;
+		}
+
+		public Loaded call() throws Exception {
+			long begin = System.nanoTime();
+			HexGrid grid = MappedMazeLoader.load(file);
+			return new Loaded(grid, System.nanoTime() - begin);
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * - BinaryHeap is the array-backed binary heap that HeapPriorityQueue and IndexedIntPriorityQueue are both built on
+ * - It keeps the priority of every entry and an insertion counter next to it, so entries with the same priority come out
+ *   first in first out, and does all the sifting, the elements themselves are kept by the queue in its own array
+ * - Whenever an entry is swapped, moved or the arrays grow the queue is told, so it can do the same to its elements
+ *   (and IndexedIntPriorityQueue can keep the index of every element up to date)
+ *
+ * @author Melissa Tran
+ */
+
+abstract class BinaryHeap {
+
+	protected double[] priorities;
+	protected long[] order;
+	protected long insertions;
+	protected int size;
+
+
+	//@param capacity - the number of entries the heap can hold before it has to grow
+	protected BinaryHeap(int capacity) {
+		priorities = new double[capacity];
+		order = new long[capacity];
+		insertions = 0;
+		size = 0;
+	}
+
+
+	//Swaps the elements at two heap indexes
+	protected abstract void swapElements(int a, int b);
+
+	//Copies the element at one heap index to another
+	protected abstract void moveElement(int from, int to);
+
+	//Makes the array of elements as long as the new capacity
+	protected abstract void growElements(int capacity);
+
+
+	//This method is used to check if the queue is empty or not
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	//This method will return the number of elements in the queue
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Adds an entry at the end of the heap, growing it if it is full, the queue puts its element there and then calls siftUp
+	 * @param: p - the priority of the entry
+	 * @return: the heap index of the new entry
+	 */
+	protected final int add(double p) {
+		if (size == priorities.length) {
+			grow();
+		}
+		int i = size++;
+		priorities[i] = p;
+		order[i] = insertions++;
+		return i;
+	}
+
+
+	//Takes the first entry out of the heap, the last entry takes its place and is sifted down
+	protected final void removeFirst() {
+		size--;
+		if (size > 0) {
+			move(size, 0);
+			siftDown(0);
+		}
+	}
+
+
+	//Gives the entry at index i a new priority and puts it behind the entries that already have that priority, it is not sifted
+	protected final void reprioritise(int i, double p) {
+		priorities[i] = p;
+		order[i] = insertions++;
+	}
+
+
+	//@return true if the entry at index a has to come out before the entry at index b
+	protected final boolean before(int a, int b) {
+		if (priorities[a] != priorities[b]) {
+			return priorities[a] < priorities[b];
+		}
+		return order[a] < order[b];
+	}
+
+	//Moves the entry at index i up until its parent comes out before it
+	protected final void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!before(i, parent)) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	//Moves the entry at index i down until both of its children come out after it
+	protected final void siftDown(int i) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && before(child + 1, child)) {
+				child++;
+			}
+			if (!before(child, i)) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	protected final void swap(int a, int b) {
+		double p = priorities[a];
+		long o = order[a];
+		priorities[a] = priorities[b];
+		order[a] = order[b];
+		priorities[b] = p;
+		order[b] = o;
+		swapElements(a, b);
+	}
+
+	protected final void move(int from, int to) {
+		priorities[to] = priorities[from];
+		order[to] = order[from];
+		moveElement(from, to);
+	}
+
+	//Doubles the size of the backing arrays
+	private void grow() {
+		int capacity = priorities.length * 2;
+		priorities = Arrays.copyOf(priorities, capacity);
+		order = Arrays.copyOf(order, capacity);
+		growElements(capacity);
+	}
+
+}
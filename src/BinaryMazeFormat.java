@@ -0,0 +1,259 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * - BinaryMazeFormat reads and writes mazes in a binary format that is about 8 times smaller than the text format and does not need to be parsed
+ * - A binary maze file has a 32 byte header followed by the tiles, all numbers are big-endian ints
+ *   bytes 0-3: the magic number "HEXB"
+ *   bytes 4-5: the version of the format, 1
+ *   bytes 6-7: 0, saved for later
+ *   bytes 8-23: the rows, the cols, the start cell and the end cell (-1 if there is no start or end)
+ *   bytes 24-27: the CRC32 checksum of the tiles
+ *   bytes 28-31: 0, saved for later
+ * - The tiles come after the header, 2 bits per tile and 4 tiles per byte, tile i is in bits 2*(i%4) and 2*(i%4)+1 of byte i/4
+ *   The 2 bits are the ordinal of the type of the tile: 0 for W, 1 for S, 2 for E and 3 for U
+ *   There is no room for terrain costs, so a grid with a cost layer can only be written as a text maze
+ * - Loading a binary maze maps the file and the HexGrid reads its tiles straight from the mapped file, nothing is copied or parsed
+ * - MappedMazeLoader also loads binary mazes, so they can be given to MazeSolverToo and BatchSolver the same as text mazes
+ *
+ * Eg. java BinaryMazeFormat big.txt big.hexb
+ *     java BinaryMazeFormat big.hexb big.txt
+ *
+ * @author Melissa Tran
+ */
+
+public class BinaryMazeFormat {
+
+	public static final int MAGIC = 0x48455842;	// "HEXB"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 32;
+
+	// The character written to a text maze for each 2 bit tile
+	private static final String TILES = "WSEU";
+
+	// The number of packed bytes made at a time while writing
+	private static final int CHUNK = 1 << 16;
+
+
+	//This is the main method which is used to run the program, it converts a text maze to binary or a binary maze to text
+	public static void main(String[] args) {
+		try {
+			if (args.length != 2) {
+				throw new IllegalArgumentException("Usage: java BinaryMazeFormat <text or binary maze> <file to write>");
+			}
+			boolean binary = isBinary(args[0]);
+			HexGrid grid = MappedMazeLoader.load(args[0]);
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]), CHUNK);
+			try {
+				if (binary)
+					writeText(grid, out);
+				else
+					write(grid, out);
+			} finally {
+				out.close();
+			}
+
+		//exceptions to be handled
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+
+
+	/**
+	 * Checks if a file starts with the magic number of a binary maze
+	 * @param: inFile - the file to check
+	 * @throws FileNotFoundException - if the file does not exist
+	 * @throws IOException - if the file could not be read
+	 */
+	public static boolean isBinary(String inFile) throws FileNotFoundException, IOException {
+		FileChannel channel = open(inFile);
+		try {
+			return isBinary(channel);
+		} finally {
+			channel.close();
+		}
+	}
+
+
+	/**
+	 * Loads a binary maze, the tiles are read from the mapped file whenever the grid needs them
+	 * @param: inFile - the binary maze file
+	 * @param: verify - true to check the checksum of the tiles, which reads every byte of the file once
+	 * @return: the grid in the file
+	 * @throws FileNotFoundException - if the file does not exist
+	 * @throws IOException - if the file is not a binary maze, is cut short or does not match its checksum
+	 */
+	public static HexGrid load(String inFile, boolean verify) throws FileNotFoundException, IOException {
+		FileChannel channel = open(inFile);
+		try {
+			return read(channel, verify);
+		} finally {
+			// the mapped tiles can still be read after the channel is closed
+			channel.close();
+		}
+	}
+
+
+	//Checks if a channel starts with the magic number of a binary maze
+	static boolean isBinary(FileChannel channel) throws IOException {
+		if (channel.size() < 4) {
+			return false;
+		}
+		ByteBuffer magic = ByteBuffer.allocate(4);
+		while (magic.hasRemaining()) {
+			if (channel.read(magic, magic.position()) < 0) {
+				return false;
+			}
+		}
+		return magic.getInt(0) == MAGIC;
+	}
+
+
+	//Reads the header of a binary maze and maps its tiles
+	static HexGrid read(FileChannel channel, boolean verify) throws IOException {
+		if (channel.size() < HEADER_SIZE) {
+			throw new IOException("The file is too short to be a binary maze");
+		}
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException("The file is not a binary maze");
+		}
+		if (header.getShort(4) != VERSION) {
+			throw new IOException("Version " + header.getShort(4) + " of the binary maze format is not supported");
+		}
+		int rows = header.getInt(8);
+		int cols = header.getInt(12);
+		int start = header.getInt(16);
+		int end = header.getInt(20);
+		int checksum = header.getInt(24);
+		long cells = (long) rows * cols;
+		if (rows < 0 || cols < 0 || cells > Integer.MAX_VALUE) {
+			throw new IOException("A " + rows + "x" + cols + " maze cannot be loaded");
+		}
+		if (start < HexGrid.NO_CELL || start >= cells || end < HexGrid.NO_CELL || end >= cells) {
+			throw new IOException("The start or end is outside of the maze");
+		}
+		long bytes = (cells + 3) / 4;
+		if (channel.size() < HEADER_SIZE + bytes) {
+			throw new IOException("The file has " + (channel.size() - HEADER_SIZE) + " bytes of tiles, " + bytes + " are needed");
+		}
+
+		MappedByteBuffer tiles = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bytes);
+		if (verify) {
+			CRC32 crc = new CRC32();
+			crc.update(tiles.duplicate());
+			if ((int) crc.getValue() != checksum) {
+				throw new IOException("The tiles do not match the checksum of the file");
+			}
+		}
+		return new HexGrid(rows, cols, tiles, start, end);
+	}
+
+
+	/**
+	 * Writes a grid as a binary maze, the stream is not closed
+	 * The grid is packed twice, a chunk at a time, once for the checksum in the header and once for the tiles, so no packed copy of the whole grid is made
+	 * @param: grid - the grid to write
+	 * @param: out - where to write it
+	 * @throws IOException - if the maze could not be written
+	 * @exception: IllegalArgumentException - if the grid has terrain costs
+	 */
+	public static void write(HexGrid grid, OutputStream out) throws IOException {
+		if (grid.hasCosts()) {
+			throw new IllegalArgumentException("A maze with terrain costs cannot be written as a binary maze");
+		}
+		byte[] chunk = new byte[CHUNK];
+		int checksum = checksum(grid);
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeShort(0);
+		data.writeInt(grid.getRows());
+		data.writeInt(grid.getCols());
+		data.writeInt(grid.getStart());
+		data.writeInt(grid.getEnd());
+		data.writeInt(checksum);
+		data.writeInt(0);
+		for (int from = 0; from < grid.size(); from += 4 * CHUNK) {
+			data.write(chunk, 0, pack(grid, from, chunk));
+		}
+		data.flush();
+	}
+
+
+	/**
+	 * Writes a grid as a text maze, in the same format as the maze files, the stream is not closed
+	 * An open tile that costs more than 1 is written as its cost
+	 * @param: grid - the grid to write
+	 * @param: out - where to write it
+	 * @throws IOException - if the maze could not be written
+	 */
+	public static void writeText(HexGrid grid, OutputStream out) throws IOException {
+		int cols = grid.getCols();
+		byte[] line = new byte[2 * cols + 1];
+		out.write((grid.getRows() + " " + cols + "\n").getBytes("US-ASCII"));
+		for (int r = 0; r < grid.getRows(); r++) {
+			for (int c = 0; c < cols; c++) {
+				line[2 * c] = ' ';
+				int cell = r * cols + c;
+				int cost = grid.getCost(cell);
+				line[2 * c + 1] = (byte) (cost > 1 && grid.getType(cell) == Hexagon.HexType.UNVISITED ? '0' + cost : TILES.charAt(grid.getType(cell).ordinal()));
+			}
+			line[2 * cols] = '\n';
+			// even rows skip the first space, odd rows are offset by half a hexagon
+			out.write(line, r % 2 == 0 ? 1 : 0, r % 2 == 0 ? 2 * cols : 2 * cols + 1);
+		}
+		out.flush();
+	}
+
+
+	//Returns the CRC32 checksum of the tiles of a grid packed 2 bits per tile, the same number as in the header of its binary maze file
+	static int checksum(HexGrid grid) {
+		byte[] chunk = new byte[CHUNK];
+		CRC32 crc = new CRC32();
+		for (int from = 0; from < grid.size(); from += 4 * CHUNK) {
+			crc.update(chunk, 0, pack(grid, from, chunk));
+		}
+		return (int) crc.getValue();
+	}
+
+
+	//Packs the tiles from a cell on into a chunk and returns the number of bytes that were filled
+	private static int pack(HexGrid grid, int from, byte[] chunk) {
+		int to = (int) Math.min(grid.size(), from + 4L * chunk.length);
+		int bytes = (to - from + 3) / 4;
+		Arrays.fill(chunk, 0, bytes, (byte) 0);
+		for (int cell = from; cell < to; cell++) {
+			int i = cell - from;
+			chunk[i >>> 2] |= grid.getType(cell).ordinal() << ((i & 3) << 1);
+		}
+		return bytes;
+	}
+
+
+	//Opens a file for reading, with the same exception as a FileReader when it does not exist
+	private static FileChannel open(String inFile) throws FileNotFoundException, IOException {
+		try {
+			return FileChannel.open(Paths.get(inFile), StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(inFile + " (No such file or directory)");
+		}
+	}
+
+}
@@ -0,0 +1,391 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * - ClusterGraph is the abstract graph of a HexGrid that HierarchicalSolver searches, it is built once for a grid and can be shared by any number of solvers
+ * - The grid is cut into square clusters of rows and columns (clusterSize x clusterSize cells, the last ones can be smaller)
+ * - Where open cells of two clusters are next to each other they form an entrance, a run of neighbouring crossings between the same two clusters
+ *   One crossing in the middle of every entrance is kept, and the two at its ends as well when the entrance is long,
+ *   the two cells of a kept crossing become nodes of the abstract graph joined by an edge of length 1
+ * - Inside every cluster the nodes are joined by edges as long as the shortest path between them that stays inside the cluster,
+ *   found with a breadth first search from every node
+ * - The nodes are numbered cluster by cluster and the edges are kept in plain int arrays (the edges of node n are edgeStart[n] to edgeStart[n + 1]),
+ *   so the graph takes a few ints per node and edge and nothing is boxed once it is built
+ * - The graph is built for the version of the grid it was made from, once a cell of the grid is changed (see HexGrid.setWall and setCost)
+ *   it is out of date and a new graph has to be built
+ *
+ * @author Melissa Tran
+ */
+
+public class ClusterGraph {
+
+	// The cluster size used when none is given
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+	// Entrances with at least this many crossings keep a crossing at each end as well as the middle one
+	private static final int LONG_ENTRANCE = 6;
+
+	// Attributes
+	private final HexGrid grid;
+	private final int clusterSize;
+	private final int clusterRows;
+	private final int clusterCols;
+	private final int[] nodeCells;	// the cell of every node
+	private final int[] firstNodes;	// the nodes of cluster c are firstNodes[c] to firstNodes[c + 1]
+	private final int[] edgeStart;
+	private final int[] edgeTargets;
+	private final int[] edgeLengths;
+	private final int version;	// the version of the grid the graph was built for
+
+
+	/**
+	 * Builds the abstract graph of a grid with the default cluster size
+	 * @param: grid - the grid to build it for
+	 */
+	public ClusterGraph(HexGrid grid) {
+		this(grid, DEFAULT_CLUSTER_SIZE);
+	}
+
+
+	/**
+	 * Builds the abstract graph of a grid
+	 * @param: grid - the grid to build it for
+	 * @param: clusterSize - the number of rows and columns in a cluster
+	 * @exception: IllegalArgumentException - if the cluster size is less than 2, or the grid has terrain costs
+	 */
+	public ClusterGraph(HexGrid grid, int clusterSize) {
+		if (clusterSize < 2) {
+			throw new IllegalArgumentException("A cluster needs at least 2 rows and columns");
+		}
+		if (grid.hasCosts()) {
+			throw new IllegalArgumentException("A cluster graph needs a maze where every step costs 1");
+		}
+		this.grid = grid;
+		this.clusterSize = clusterSize;
+		this.version = grid.getVersion();
+		this.clusterRows = (grid.getRows() + clusterSize - 1) / clusterSize;
+		this.clusterCols = (grid.getCols() + clusterSize - 1) / clusterSize;
+		int clusters = clusterRows * clusterCols;
+
+		// every crossing between two clusters, grouped by the pair of clusters
+		Map<Long, List<int[]>> crossings = new LinkedHashMap<Long, List<int[]>>();
+		for (int cell = 0; cell < grid.size(); cell++) {
+			if (grid.isWall(cell) || !onClusterEdge(cell))
+				continue;
+			int from = clusterOf(cell);
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(cell, side);
+				if (neighbour == HexGrid.NO_CELL || grid.isWall(neighbour))
+					continue;
+				int to = clusterOf(neighbour);
+				if (to <= from)
+					continue;	// every crossing is only added from the cluster with the smaller number
+				Long pair = Long.valueOf((long) from * clusters + to);
+				List<int[]> list = crossings.get(pair);
+				if (list == null) {
+					list = new ArrayList<int[]>();
+					crossings.put(pair, list);
+				}
+				list.add(new int[] {cell, neighbour});
+			}
+		}
+
+		// the crossings that are kept, and the cells of the nodes in every cluster
+		List<int[]> kept = new ArrayList<int[]>();
+		for (List<int[]> list : crossings.values()) {
+			keepEntrances(list, kept);
+		}
+		List<TreeSet<Integer>> clusterNodes = new ArrayList<TreeSet<Integer>>(clusters);
+		for (int c = 0; c < clusters; c++) {
+			clusterNodes.add(new TreeSet<Integer>());
+		}
+		for (int[] crossing : kept) {
+			clusterNodes.get(clusterOf(crossing[0])).add(crossing[0]);
+			clusterNodes.get(clusterOf(crossing[1])).add(crossing[1]);
+		}
+
+		// the nodes are numbered cluster by cluster
+		firstNodes = new int[clusters + 1];
+		int count = 0;
+		for (int c = 0; c < clusters; c++) {
+			firstNodes[c] = count;
+			count += clusterNodes.get(c).size();
+		}
+		firstNodes[clusters] = count;
+		nodeCells = new int[count];
+		int n = 0;
+		for (int c = 0; c < clusters; c++) {
+			for (Integer cell : clusterNodes.get(c)) {
+				nodeCells[n++] = cell;
+			}
+		}
+
+		// the edges in both directions, first counted and then filled in
+		int[][] intra = new int[count][];
+		LocalSearch search = new LocalSearch(this);
+		int[] degree = new int[count];
+		for (int c = 0; c < clusters; c++) {
+			for (int a = firstNodes[c]; a < firstNodes[c + 1]; a++) {
+				search.run(nodeCells[a]);
+				int[] lengths = new int[firstNodes[c + 1] - firstNodes[c]];
+				for (int b = firstNodes[c]; b < firstNodes[c + 1]; b++) {
+					lengths[b - firstNodes[c]] = search.distance(nodeCells[b]);
+					if (b != a && lengths[b - firstNodes[c]] >= 0)
+						degree[a]++;
+				}
+				intra[a] = lengths;
+			}
+		}
+		int[][] inter = new int[kept.size()][];
+		for (int i = 0; i < kept.size(); i++) {
+			int a = nodeOf(kept.get(i)[0]);
+			int b = nodeOf(kept.get(i)[1]);
+			inter[i] = new int[] {a, b};
+			degree[a]++;
+			degree[b]++;
+		}
+		edgeStart = new int[count + 1];
+		for (int a = 0; a < count; a++) {
+			edgeStart[a + 1] = edgeStart[a] + degree[a];
+		}
+		edgeTargets = new int[edgeStart[count]];
+		edgeLengths = new int[edgeStart[count]];
+		int[] next = Arrays.copyOf(edgeStart, count);
+		for (int a = 0; a < count; a++) {
+			int first = firstNodes[clusterOf(nodeCells[a])];
+			for (int i = 0; i < intra[a].length; i++) {
+				if (first + i != a && intra[a][i] >= 0) {
+					edgeTargets[next[a]] = first + i;
+					edgeLengths[next[a]++] = intra[a][i];
+				}
+			}
+		}
+		for (int[] edge : inter) {
+			edgeTargets[next[edge[0]]] = edge[1];
+			edgeLengths[next[edge[0]]++] = 1;
+			edgeTargets[next[edge[1]]] = edge[0];
+			edgeLengths[next[edge[1]]++] = 1;
+		}
+	}
+
+
+	//Returns the grid this graph was built for
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+	//Checks if the grid is still the way it was when the graph was built
+	public boolean isCurrent() {
+		return grid.getVersion() == version;
+	}
+
+	//Returns the number of rows and columns in a cluster
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	//Returns the number of clusters
+	public int getClusterCount() {
+		return clusterRows * clusterCols;
+	}
+
+	//Returns the number of nodes in the abstract graph
+	public int getNodeCount() {
+		return nodeCells.length;
+	}
+
+	//Returns the number of edges in the abstract graph, each direction counts once
+	public int getEdgeCount() {
+		return edgeTargets.length;
+	}
+
+	//Returns the cluster a cell is in
+	public int clusterOf(int cell) {
+		return (grid.getRow(cell) / clusterSize) * clusterCols + grid.getCol(cell) / clusterSize;
+	}
+
+
+	// Package-private accessors for HierarchicalSolver
+
+	int getNodeCell(int node) {
+		return nodeCells[node];
+	}
+
+	int getFirstNode(int cluster) {
+		return firstNodes[cluster];
+	}
+
+	int getEdgeStart(int node) {
+		return edgeStart[node];
+	}
+
+	int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	int getEdgeLength(int edge) {
+		return edgeLengths[edge];
+	}
+
+
+	//Returns the node of a cell, the cell must be a node
+	private int nodeOf(int cell) {
+		int c = clusterOf(cell);
+		return Arrays.binarySearch(nodeCells, firstNodes[c], firstNodes[c + 1], cell);
+	}
+
+
+	//Checks if a cell is in the first or last row or column of its cluster
+	private boolean onClusterEdge(int cell) {
+		int r = grid.getRow(cell) % clusterSize;
+		int c = grid.getCol(cell) % clusterSize;
+		return r == 0 || c == 0 || r == clusterSize - 1 || c == clusterSize - 1;
+	}
+
+
+	/**
+	 * Splits the crossings between two clusters into entrances and keeps the middle crossing of each, and the end ones of a long entrance
+	 * Two crossings are in the same entrance when their cells on each side are the same or next to each other
+	 */
+	private void keepEntrances(List<int[]> list, List<int[]> kept) {
+		int[] group = new int[list.size()];
+		for (int i = 0; i < group.length; i++) {
+			group[i] = i;
+		}
+		for (int i = 0; i < list.size(); i++) {
+			for (int j = i + 1; j < list.size(); j++) {
+				if (touches(list.get(i)[0], list.get(j)[0]) && touches(list.get(i)[1], list.get(j)[1])) {
+					group[find(group, i)] = find(group, j);
+				}
+			}
+		}
+		// the crossings of each entrance are in the order they were found, which follows the cells along the edge of the cluster
+		for (int i = 0; i < list.size(); i++) {
+			if (find(group, i) != i)
+				continue;
+			List<int[]> entrance = new ArrayList<int[]>();
+			for (int j = 0; j < list.size(); j++) {
+				if (find(group, j) == i)
+					entrance.add(list.get(j));
+			}
+			kept.add(entrance.get(entrance.size() / 2));
+			if (entrance.size() >= LONG_ENTRANCE) {
+				kept.add(entrance.get(0));
+				kept.add(entrance.get(entrance.size() - 1));
+			}
+		}
+	}
+
+
+	//Checks if two cells are the same or next to each other
+	private boolean touches(int a, int b) {
+		return grid.distanceBetween(a, b) <= 1;
+	}
+
+
+	//Returns the group at the root of a union find tree
+	private static int find(int[] group, int i) {
+		while (group[i] != i) {
+			group[i] = group[group[i]];
+			i = group[i];
+		}
+		return group[i];
+	}
+
+
+	/**
+	 * - LocalSearch is a breadth first search that stays inside the cluster it starts in
+	 * - Its arrays only cover one cluster, and like a SearchContext every run has its own mark, so a run does not clear anything
+	 */
+	static class LocalSearch {
+		private final ClusterGraph graph;
+		private final HexGrid grid;
+		private final int size;
+		private final int[] marks;
+		private final int[] distances;
+		private final int[] parents;
+		private final int[] fifo;
+		private int mark;
+		private int firstRow;
+		private int firstCol;
+		private int cluster;
+		private int expansions;	// the cells dequeued by every run so far
+
+		LocalSearch(ClusterGraph graph) {
+			this.graph = graph;
+			this.grid = graph.grid;
+			this.size = graph.clusterSize;
+			this.marks = new int[size * size];
+			this.distances = new int[size * size];
+			this.parents = new int[size * size];
+			this.fifo = new int[size * size];
+		}
+
+		//Finds the distance from a cell to every cell of its cluster that can be reached without leaving the cluster
+		void run(int from) {
+			if (++mark == Integer.MAX_VALUE) {
+				Arrays.fill(marks, 0);
+				mark = 1;
+			}
+			cluster = graph.clusterOf(from);
+			firstRow = grid.getRow(from) / size * size;
+			firstCol = grid.getCol(from) / size * size;
+			// the cluster is walked in its own rows and columns, a neighbour outside them is outside the cluster
+			int rows = Math.min(size, grid.getRows() - firstRow);
+			int cols = Math.min(size, grid.getCols() - firstCol);
+			int head = 0;
+			int tail = 0;
+			int start = local(from);
+			marks[start] = mark;
+			distances[start] = 0;
+			parents[start] = HexGrid.NO_CELL;
+			fifo[tail++] = start;
+			while (head < tail) {
+				int i = fifo[head++];
+				int r = i / size;
+				int c = i - r * size;
+				expansions++;
+				for (int side = 0; side <= 5; side++) {
+					// the steps depend on the row of the grid, not the row in the cluster
+					int nr = r + HexGrid.rowStep(side);
+					int nc = c + HexGrid.colStep(firstRow + r, side);
+					if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+						continue;
+					int n = nr * size + nc;
+					if (marks[n] == mark || grid.isWall((firstRow + nr) * grid.getCols() + firstCol + nc))
+						continue;
+					marks[n] = mark;
+					distances[n] = distances[i] + 1;
+					parents[n] = (firstRow + r) * grid.getCols() + firstCol + c;
+					fifo[tail++] = n;
+				}
+			}
+		}
+
+		//Returns the distance the last run found to a cell, or -1 if it did not reach it
+		int distance(int cell) {
+			if (graph.clusterOf(cell) != cluster || marks[local(cell)] != mark)
+				return -1;
+			return distances[local(cell)];
+		}
+
+		//Returns the cell the last run reached a cell from
+		int parent(int cell) {
+			return parents[local(cell)];
+		}
+
+		//Returns the number of cells dequeued by every run so far
+		int getExpansions() {
+			return expansions;
+		}
+
+		private int local(int cell) {
+			return (grid.getRow(cell) - firstRow) * size + grid.getCol(cell) - firstCol;
+		}
+	}
+
+}
@@ -0,0 +1,360 @@
+import java.util.Arrays;
+
+/**
+ * - DStarLiteSolver finds the shortest path like AStarSolver, but keeps its search between calls so that it can be repaired
+ *   instead of run again when walls open or close, or when the start moves towards the end (D* Lite)
+ * - It searches backwards, from the end towards the start, so the distance to the end that every cell was given stays true
+ *   while a unit walks along the path and the start changes
+ * - Every cell has g, the distance to the end the last search settled on, and rhs, the distance one step through its best neighbour
+ *   A cell whose g and rhs are different is inconsistent and is in the queue, the search only goes on until no cell in the queue
+ *   could still make the rhs of the start shorter, the rhs of the start is then the length of the path
+ * - When a cell is changed with setWall only that cell and its neighbours are looked at again, so the next search
+ *   only goes through the part of the maze whose distances changed, not through the whole maze
+ * - The key of a cell is [min(g, rhs) + h + km, min(g, rhs)], compared first by the first part, with h the cube distance to the start
+ *   and km the distance the start has moved since the search began (so the keys already in the queue do not have to be changed)
+ *   The two parts are packed into one double priority, first part * (cells + 1) + second part, which is exact for grids up to MAX_CELLS cells
+ * - Calling solve with a different end, or after the grid was changed without this solver's setWall, starts a new search
+ * - The g and rhs arrays are only made valid for a cell when it is first used in a search (like the marks of a SearchContext),
+ *   so starting a new search does not clear them
+ *
+ * @author Melissa Tran
+ */
+
+public class DStarLiteSolver implements PathFinder {
+
+	// The largest grid the keys can be packed exactly for
+	public static final int MAX_CELLS = 1 << 25;
+
+	// The distance of a cell the end cannot be reached from
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	// Attributes
+	private final HexGrid grid;
+	private final IndexedIntPriorityQueue queue;
+	private final int[] g;
+	private final int[] rhs;
+	private final int[] marks;	// g and rhs only hold a value for a cell whose mark is the current search
+	private int search;
+	private SearchListener listener;
+
+	// The search that is kept between calls
+	private int start = HexGrid.NO_CELL;
+	private int end = HexGrid.NO_CELL;
+	private int lastStart;	// the start when km was last added to
+	private int km;
+	private int version;	// the version of the grid the search is for
+
+	// The statistics since the last result
+	private int expansions;
+	private int enqueues;
+	private int decreaseKeys;
+	private int peakQueueSize;
+
+
+	/**
+	 * Creates a solver for a grid, nothing is searched until solve is called
+	 * @param: grid - the maze to search
+	 * @exception: IllegalArgumentException - if the grid has more than MAX_CELLS cells
+	 */
+	public DStarLiteSolver(HexGrid grid) {
+		if (grid.size() > MAX_CELLS) {
+			throw new IllegalArgumentException("A D* Lite search can only be kept for grids of up to " + MAX_CELLS + " cells");
+		}
+		this.grid = grid;
+		this.queue = new IndexedIntPriorityQueue(grid.size());
+		this.g = new int[grid.size()];
+		this.rhs = new int[grid.size()];
+		this.marks = new int[grid.size()];
+	}
+
+
+	//Sets the listener that is told about every change to a cell, null for no listener
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+
+	//Searches from the start tile of the grid to the end tile of the grid
+	public SearchResult solve() {
+		return solve(grid.getStart(), grid.getEnd());
+	}
+
+
+	/**
+	 * Finds the shortest path between two cells, repairing the last search if it had the same end
+	 * @param: start - the cell to start from, eg. where a unit is now
+	 * @param: end - the cell to look for
+	 * @return: the statistics of this call (only the cells it had to look at again are counted) and the path to the end,
+	 *          the end is not found if the start or end is a wall, and the last search is kept for the next call
+	 * @exception: IllegalArgumentException - if there is no start or no end cell, or the grid has terrain costs
+	 */
+	public SearchResult solve(int start, int end) {
+		if (start == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("The maze has no start");
+		}
+		if (end == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("A D* Lite search needs an end");
+		}
+		if (grid.hasCosts()) {
+			throw new IllegalArgumentException("A D* Lite search needs a maze where every step costs 1");
+		}
+		if (grid.isWall(start) || grid.isWall(end)) {
+			return SearchResult.notFound();
+		}
+		if (end != this.end || grid.getVersion() != version) {
+			begin(start, end);
+		}
+		this.start = start;
+		return replan();
+	}
+
+
+	/**
+	 * Changes a cell of the grid into a wall or an open tile, and marks the cells whose distance it can change so the next search repairs them
+	 * Nothing is searched until replan or solve is called, so several cells can be changed first
+	 * @param: cell - the cell to change
+	 * @param: wall - true for a Wall tile, false for an Unvisited tile
+	 * @exception: IllegalArgumentException - if the cell is the start or end of the grid
+	 */
+	public void setWall(int cell, boolean wall) {
+		boolean current = grid.getVersion() == version;
+		grid.setWall(cell, wall);
+		if (end == HexGrid.NO_CELL || !current) {
+			// there is no search to repair, the next call starts a new one
+			return;
+		}
+		version = grid.getVersion();
+
+		// the keys already in the queue were made from an older start
+		km += grid.distanceBetween(lastStart, start);
+		lastStart = start;
+		if (km > grid.size()) {
+			// km is kept small so the keys stay exact, a new search is started instead
+			version = -1;
+			return;
+		}
+		update(cell);
+		for (int side = 0; side <= 5; side++) {
+			int neighbour = grid.getNeighbour(cell, side);
+			if (neighbour != HexGrid.NO_CELL)
+				update(neighbour);
+		}
+	}
+
+
+	/**
+	 * Repairs the search from the current start to the current end after cells were changed or the start moved
+	 * @return: the statistics of the repair (counting the queue changes made by setWall since the last call) and the path to the end
+	 * @exception: IllegalStateException - if solve has not been called yet
+	 */
+	public SearchResult replan() {
+		if (end == HexGrid.NO_CELL) {
+			throw new IllegalStateException("There is no search to repair, call solve first");
+		}
+		if (grid.getVersion() != version) {
+			begin(start, end);
+		}
+		if (start != lastStart) {
+			km += grid.distanceBetween(lastStart, start);
+			lastStart = start;
+			if (km > grid.size()) {
+				begin(start, end);
+			}
+		}
+		peakQueueSize = Math.max(peakQueueSize, queue.size());
+		computeShortestPath();
+		// the search can stop before the start itself is expanded, its rhs is its distance to the end
+		boolean isThereEnd = getRhs(start) != INFINITY;
+		SearchResult result = new SearchResult(isThereEnd, isThereEnd ? getRhs(start) : -1, queue.size(),
+				expansions, enqueues, decreaseKeys, peakQueueSize, isThereEnd ? makePath() : null);
+		expansions = 0;
+		enqueues = 0;
+		decreaseKeys = 0;
+		peakQueueSize = 0;
+		return result;
+	}
+
+
+	//Returns the current start, or HexGrid.NO_CELL if nothing was searched yet
+	public int getStart() {
+		return start;
+	}
+
+
+	//Returns the current end, or HexGrid.NO_CELL if nothing was searched yet
+	public int getEnd() {
+		return end;
+	}
+
+
+	//Forgets the last search and starts a new one, with only the end in the queue
+	private void begin(int start, int end) {
+		if (++search == Integer.MAX_VALUE) {
+			Arrays.fill(marks, 0);
+			search = 1;
+		}
+		queue.clear();
+		this.start = start;
+		this.end = end;
+		this.lastStart = start;
+		this.km = 0;
+		this.version = grid.getVersion();
+		if (isOpen(end)) {
+			setRhs(end, 0);
+			queue.enqueue(end, key(end));
+			notify(end, Hexagon.HexType.END_PROCESSED);
+			enqueues++;
+		}
+	}
+
+
+	//Expands the cells in the queue until none of them can make the path from the start shorter
+	private void computeShortestPath() {
+		while (queue.firstPriority() < key(start) || getRhs(start) > getG(start)) {
+			int u = queue.firstInt();
+			double oldKey = queue.firstPriority();
+			double newKey = key(u);
+			expansions++;
+			notify(u, Hexagon.HexType.CURRENT);
+			if (oldKey < newKey) {
+				// the key was made before the start moved
+				queue.changeKey(u, newKey);
+				decreaseKeys++;
+			} else if (getG(u) > getRhs(u)) {
+				// overconsistent, its distance is settled and its neighbours can go through it
+				setG(u, getRhs(u));
+				queue.remove(u);
+				for (int side = 0; side <= 5; side++) {
+					int s = grid.getNeighbour(u, side);
+					if (s != HexGrid.NO_CELL && s != end && isOpen(s) && getG(u) + 1 < getRhs(s)) {
+						setRhs(s, getG(u) + 1);
+						updateQueue(s);
+					}
+				}
+			} else {
+				// underconsistent, its old distance was too short, so it and every neighbour that went through it is worked out again
+				setG(u, INFINITY);
+				update(u);
+				for (int side = 0; side <= 5; side++) {
+					int s = grid.getNeighbour(u, side);
+					if (s != HexGrid.NO_CELL)
+						update(s);
+				}
+			}
+			peakQueueSize = Math.max(peakQueueSize, queue.size());
+			notify(u, u == end ? Hexagon.HexType.END_PROCESSED : Hexagon.HexType.DEQUEUED);
+		}
+	}
+
+
+	//Works out the rhs of a cell again from its neighbours, and puts it in or takes it out of the queue
+	private void update(int cell) {
+		if (cell != end) {
+			int best = INFINITY;
+			if (isOpen(cell)) {
+				for (int side = 0; side <= 5; side++) {
+					int s = grid.getNeighbour(cell, side);
+					if (s != HexGrid.NO_CELL && isOpen(s) && getG(s) != INFINITY)
+						best = Math.min(best, getG(s) + 1);
+				}
+			}
+			setRhs(cell, best);
+		} else {
+			setRhs(cell, isOpen(cell) ? 0 : INFINITY);
+		}
+		updateQueue(cell);
+	}
+
+
+	//Puts a cell in the queue with its key if it is inconsistent, or takes it out if it is not
+	private void updateQueue(int cell) {
+		boolean inconsistent = getG(cell) != getRhs(cell);
+		if (inconsistent && queue.contains(cell)) {
+			queue.changeKey(cell, key(cell));
+			decreaseKeys++;
+		} else if (inconsistent) {
+			queue.enqueue(cell, key(cell));
+			notify(cell, Hexagon.HexType.ENQUEUED);
+			enqueues++;
+		} else if (queue.contains(cell)) {
+			queue.remove(cell);
+		}
+	}
+
+
+	//Returns the key of a cell packed into one priority, or positive infinity if neither g nor rhs is known
+	private double key(int cell) {
+		int distance = Math.min(getG(cell), getRhs(cell));
+		if (distance == INFINITY) {
+			return Double.POSITIVE_INFINITY;
+		}
+		long first = (long) distance + grid.distanceBetween(start, cell) + km;
+		return (double) (first * (grid.size() + 1L) + distance);
+	}
+
+
+	//Follows the neighbours with the smallest g from the start to the end
+	private HexPath makePath() {
+		int[] cells = new int[getRhs(start) + 1];
+		cells[0] = start;
+		for (int i = 1; i < cells.length; i++) {
+			int best = HexGrid.NO_CELL;
+			for (int side = 0; side <= 5; side++) {
+				int s = grid.getNeighbour(cells[i - 1], side);
+				if (s != HexGrid.NO_CELL && isOpen(s) && getG(s) != INFINITY && (best == HexGrid.NO_CELL || getG(s) < getG(best)))
+					best = s;
+			}
+			cells[i] = best;
+		}
+		return HexPath.fromCells(grid, cells);
+	}
+
+
+	//Returns the g of a cell, infinity if it has not been used in this search
+	private int getG(int cell) {
+		return marks[cell] == search ? g[cell] : INFINITY;
+	}
+
+
+	//Returns the rhs of a cell, infinity if it has not been used in this search
+	private int getRhs(int cell) {
+		return marks[cell] == search ? rhs[cell] : INFINITY;
+	}
+
+
+	private void setG(int cell, int value) {
+		use(cell);
+		g[cell] = value;
+	}
+
+
+	private void setRhs(int cell, int value) {
+		use(cell);
+		rhs[cell] = value;
+	}
+
+
+	//Makes the g and rhs of a cell valid for this search, both start as infinity
+	private void use(int cell) {
+		if (marks[cell] != search) {
+			marks[cell] = search;
+			g[cell] = INFINITY;
+			rhs[cell] = INFINITY;
+		}
+	}
+
+
+	//Checks if a cell exists and is not a wall
+	private boolean isOpen(int cell) {
+		return cell != HexGrid.NO_CELL && !grid.isWall(cell);
+	}
+
+
+	//Helper method to tell the listener about a change, if there is one
+	private void notify(int cell, Hexagon.HexType state) {
+		if (listener != null) {
+			listener.cellChanged(cell, state);
+		}
+	}
+
+}
@@ -0,0 +1,337 @@
+import java.util.Arrays;
+
+/**
+ * - FlowField works out the way to one goal cell from every cell of a HexGrid at once, so any number of units heading to the same goal
+ *   can each find their next step without a search of their own
+ * - It sweeps backwards from the goal over the six neighbours of every cell, a breadth first search when every step costs 1,
+ *   or Dijkstra's algorithm on a grid with terrain costs, and keeps two fields the size of the grid:
+ *   the distance (what the cheapest path to the goal costs) in an int per cell, and the side to leave through in a byte per cell
+ * - A unit then looks up its next cell with nextCell, in O(1), and following the sides from any cell gives a cheapest path to the goal
+ * - setWall and setCost change the grid and repair the fields: only the cells whose way to the goal went through the changed cell
+ *   are worked out again, together with the cells that can now get to the goal cheaper, so a door opening or a wall being built
+ *   only costs as much as the part of the maze it changes
+ * - Moving the goal changes the distance of almost every cell, so setGoal sweeps the whole grid again, reusing the same arrays
+ * - A cell that cannot reach the goal, and every wall, has a distance of UNREACHABLE and a side of NO_DIRECTION, so does the goal itself (with a distance of 0)
+ * - The fields can be read by any number of threads at the same time, as long as nothing is changed while they do
+ *
+ * @author Melissa Tran
+ */
+
+public class FlowField {
+
+	// The distance of a cell that cannot reach the goal
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	// The side of a cell that has no next step, the goal and the cells that cannot reach it
+	public static final byte NO_DIRECTION = -1;
+
+	// Attributes
+	private final HexGrid grid;
+	private final int[] distances;
+	private final byte[] directions;
+	private int[] cells;	// the breadth first queue of a sweep and the list of cells of a repair, made when first needed
+	private IndexedIntPriorityQueue queue;	// for the sweeps on a grid with costs and for every repair, made when first needed
+	private int goal = HexGrid.NO_CELL;
+	private int version;	// the version of the grid the fields are for
+	private int lastUpdated;	// the number of times a cell was given a distance by the last sweep or repair
+
+
+	//@param grid - the maze to make the fields for, nothing is worked out until setGoal is called
+	public FlowField(HexGrid grid) {
+		this.grid = grid;
+		this.distances = new int[grid.size()];
+		this.directions = new byte[grid.size()];
+		Arrays.fill(distances, UNREACHABLE);
+		Arrays.fill(directions, NO_DIRECTION);
+	}
+
+
+	/**
+	 * Makes the fields for a goal
+	 * @param: grid - the maze to make the fields for
+	 * @param: goal - the cell every unit is heading to
+	 * @exception: IllegalArgumentException - if the goal is not an open cell of the grid
+	 */
+	public FlowField(HexGrid grid, int goal) {
+		this(grid);
+		setGoal(goal);
+	}
+
+
+	//Returns the grid the fields are for
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+
+	//Returns the cell every unit is heading to, or HexGrid.NO_CELL if setGoal was not called yet
+	public int getGoal() {
+		return goal;
+	}
+
+
+	/**
+	 * Moves the goal and sweeps the whole grid again from it, nothing is allocated
+	 * @param: goal - the cell every unit is heading to
+	 * @exception: IllegalArgumentException - if the goal is not an open cell of the grid
+	 */
+	public void setGoal(int goal) {
+		if (goal < 0 || goal >= grid.size() || grid.isWall(goal)) {
+			throw new IllegalArgumentException("The goal of a flow field must be an open cell, not " + goal);
+		}
+		this.goal = goal;
+		sweep();
+	}
+
+
+	//Returns true if the grid has not been changed since the fields were made, other than with the setWall and setCost of this field
+	public boolean isCurrent() {
+		return goal != HexGrid.NO_CELL && grid.getVersion() == version;
+	}
+
+
+	//Returns what the cheapest path from a cell to the goal costs (the number of steps on a grid without costs), or UNREACHABLE
+	public int getDistance(int cell) {
+		return distances[cell];
+	}
+
+
+	//Returns the side (0-5) of a cell to leave through on a cheapest path to the goal, or NO_DIRECTION
+	public int getDirection(int cell) {
+		return directions[cell];
+	}
+
+
+	//Returns the cell to step onto from a cell to get to the goal, or HexGrid.NO_CELL at the goal or if the goal cannot be reached
+	public int nextCell(int cell) {
+		int side = directions[cell];
+		return side == NO_DIRECTION ? HexGrid.NO_CELL : grid.getNeighbour(cell, side);
+	}
+
+
+	/**
+	 * Follows the sides from a cell to the goal
+	 * @param: cell - the cell a unit is on
+	 * @return: a cheapest path from the cell to the goal, or null if the goal cannot be reached from it
+	 */
+	public HexPath pathFrom(int cell) {
+		if (distances[cell] == UNREACHABLE) {
+			return null;
+		}
+		int length = 0;
+		for (int c = cell; c != goal; c = nextCell(c)) {
+			length++;
+		}
+		int[] path = new int[length + 1];
+		path[0] = cell;
+		for (int i = 1; i <= length; i++) {
+			path[i] = nextCell(path[i - 1]);
+		}
+		return HexPath.fromCells(grid, path);
+	}
+
+
+	//Returns the number of times a cell was given a distance by the last sweep or repair, to see how much of the grid a change touched
+	public int getLastUpdated() {
+		return lastUpdated;
+	}
+
+
+	/**
+	 * Turns a cell of the grid into a wall or an open tile and repairs the fields around it
+	 * If the grid was changed some other way since the fields were made, the whole grid is swept again instead
+	 * @param: cell - the cell to change
+	 * @param: wall - true for a Wall tile, false for an Unvisited tile
+	 * @exception: IllegalArgumentException - if the cell is the goal, or the start or end of the grid
+	 * @exception: IllegalStateException - if setGoal has not been called yet
+	 */
+	public void setWall(int cell, boolean wall) {
+		checkGoal();
+		if (cell == goal) {
+			throw new IllegalArgumentException("The goal of a flow field cannot be changed into a wall");
+		}
+		boolean current = isCurrent();
+		if (current && grid.isWall(cell) == wall) {
+			return;
+		}
+		grid.setWall(cell, wall);
+		if (current) {
+			repair(cell, true);
+		} else {
+			sweep();
+		}
+	}
+
+
+	/**
+	 * Changes what it costs to step onto a cell of the grid and repairs the fields around it
+	 * If the grid was changed some other way since the fields were made, the whole grid is swept again instead
+	 * @param: cell - the cell to change
+	 * @param: cost - from 1 up to HexGrid.MAX_COST
+	 * @exception: IllegalArgumentException - if the cost is not in that range
+	 * @exception: IllegalStateException - if setGoal has not been called yet
+	 */
+	public void setCost(int cell, int cost) {
+		checkGoal();
+		boolean current = isCurrent();
+		if (current && grid.getCost(cell) == cost) {
+			return;
+		}
+		grid.setCost(cell, cost);
+		if (current) {
+			repair(cell, false);
+		} else {
+			sweep();
+		}
+	}
+
+
+	//Works out both fields for the whole grid from the goal
+	private void sweep() {
+		Arrays.fill(distances, UNREACHABLE);
+		Arrays.fill(directions, NO_DIRECTION);
+		version = grid.getVersion();
+		distances[goal] = 0;
+		if (grid.hasCosts()) {
+			queue().clear();
+			queue.enqueue(goal, 0);
+			lastUpdated = 1 + settle();
+			return;
+		}
+
+		// every step costs 1, so the cells come out of a plain first in first out queue in order of distance
+		int[] fifo = cells();
+		int cols = grid.getCols();
+		int head = 0;
+		int tail = 0;
+		fifo[tail++] = goal;
+		while (head < tail) {
+			int cell = fifo[head++];
+			int r = cell / cols;
+			int c = cell - r * cols;
+			int next = distances[cell] + 1;
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(r, c, side);
+				if (neighbour == HexGrid.NO_CELL)
+					continue;
+				if (distances[neighbour] == UNREACHABLE && !grid.isWall(neighbour)) {
+					distances[neighbour] = next;
+					directions[neighbour] = (byte) ((side + 3) % 6);
+					fifo[tail++] = neighbour;
+				}
+			}
+		}
+		lastUpdated = tail;
+	}
+
+
+	/**
+	 * Repairs the fields after one cell was changed
+	 * The cells whose way to the goal went through the cell lose their distance and are given a new one from their other neighbours,
+	 * then every cell whose distance went down is passed on to its neighbours, the same as in Dijkstra's algorithm
+	 * @param: cell - the cell that was changed
+	 * @param: wallChanged - true if the cell was turned into a wall or an open tile, false if only its cost changed
+	 */
+	private void repair(int cell, boolean wallChanged) {
+		int[] lost = cells();
+		int count = 0;
+		if (wallChanged) {
+			// the cell itself has a new distance, and nothing can go through a wall
+			distances[cell] = UNREACHABLE;
+			lost[count++] = cell;
+		} else if (distances[cell] != UNREACHABLE) {
+			// only the cells that step onto this one pay its cost
+			count = addDependents(cell, lost, count);
+		}
+		for (int i = 0; i < count; i++) {
+			count = addDependents(lost[i], lost, count);
+		}
+		for (int i = 0; i < count; i++) {
+			directions[lost[i]] = NO_DIRECTION;
+		}
+
+		// each cell that lost its distance starts from the best neighbour that kept one, and the changed cell passes on its new cost
+		queue().clear();
+		for (int i = 0; i < count; i++) {
+			int c = lost[i];
+			if (grid.isWall(c))
+				continue;
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(c, side);
+				if (neighbour != HexGrid.NO_CELL && distances[neighbour] != UNREACHABLE) {
+					int distance = distances[neighbour] + grid.getCost(neighbour);
+					if (distance < distances[c]) {
+						distances[c] = distance;
+						directions[c] = (byte) side;
+					}
+				}
+			}
+			if (distances[c] != UNREACHABLE)
+				queue.enqueue(c, distances[c]);
+		}
+		if (!wallChanged && distances[cell] != UNREACHABLE && !queue.contains(cell)) {
+			queue.enqueue(cell, distances[cell]);
+		}
+		version = grid.getVersion();
+		lastUpdated = count + settle();
+	}
+
+
+	//Adds the cells whose next cell is the given one to a list, and takes their distance away so they are only added once
+	private int addDependents(int cell, int[] list, int count) {
+		for (int side = 0; side <= 5; side++) {
+			int neighbour = grid.getNeighbour(cell, side);
+			if (neighbour != HexGrid.NO_CELL && distances[neighbour] != UNREACHABLE && neighbour != goal
+					&& directions[neighbour] == (side + 3) % 6) {
+				distances[neighbour] = UNREACHABLE;
+				list[count++] = neighbour;
+			}
+		}
+		return count;
+	}
+
+
+	//Takes the cells out of the queue in order of distance and lowers the distance of their neighbours, returns how many times a distance was lowered
+	private int settle() {
+		int lowered = 0;
+		while (!queue.isEmpty()) {
+			int cell = queue.dequeueInt();
+			int distance = distances[cell] + grid.getCost(cell);
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(cell, side);
+				if (neighbour == HexGrid.NO_CELL || neighbour == goal || grid.isWall(neighbour) || distance >= distances[neighbour])
+					continue;
+				distances[neighbour] = distance;
+				directions[neighbour] = (byte) ((side + 3) % 6);
+				if (queue.contains(neighbour))
+					queue.decreaseKey(neighbour, distance);
+				else
+					queue.enqueue(neighbour, distance);
+				lowered++;
+			}
+		}
+		return lowered;
+	}
+
+
+	private void checkGoal() {
+		if (goal == HexGrid.NO_CELL) {
+			throw new IllegalStateException("The flow field has no goal yet, call setGoal first");
+		}
+	}
+
+
+	private int[] cells() {
+		if (cells == null)
+			cells = new int[grid.size()];
+		return cells;
+	}
+
+
+	private IndexedIntPriorityQueue queue() {
+		if (queue == null)
+			queue = new IndexedIntPriorityQueue(grid.size());
+		return queue;
+	}
+
+}
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * - This class, HeapPriorityQueue, is an array-backed binary heap implementation of PriorityQueueADT
+ * - enqueue and dequeue are O(log n), compared to the O(n) walk that LinkedPriorityQueue does on every insert
+ * - Elements with the same priority come out in the order they went in, the same as the "<=" walk in LinkedPriorityQueue,
+ *   so swapping one queue for the other does not change the order a maze is explored in
+ * - Ties are broken with an insertion counter that is stored next to each priority, the heap itself is a BinaryHeap
+ *
+ * @author Melissa Tran
+ */
+
+public class HeapPriorityQueue<T> extends BinaryHeap implements PriorityQueueADT<T> {
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private Object[] elements;
+
+
+	//constructor method - creates an empty HeapPriorityQueue
+	public HeapPriorityQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	//@param capacity - the number of elements the queue can hold before it has to grow
+	public HeapPriorityQueue(int capacity) {
+		super(Math.max(1, capacity));
+		elements = new Object[priorities.length];
+	}
+
+
+	/**
+	 * - This method adds an element with no priority, so it goes behind everything that is already in the queue
+	 * - Elements added this way keep their insertion order between themselves
+	 */
+	public void enqueue(T element) {
+		enqueue(element, Double.POSITIVE_INFINITY);
+	}
+
+
+	/**
+	 * This method adds the element into the queue based on priority, the smallest priority is dequeued first
+	 * @param: element - the element we want to add in
+	 * @param: p - the priority of the element, elements with equal priority are dequeued first in first out
+	 */
+	public void enqueue(T element, double p) {
+		int i = add(p);
+		elements[i] = element;
+		siftUp(i);
+	}
+
+
+	//This method removes the element with the smallest priority, if there are no elements it will throw an EmptyCollectionException
+	public T dequeue() throws EmptyCollectionException {
+		if (size == 0) {
+			throw new EmptyCollectionException("priority queue");
+		}
+		T result = elementAt(0);
+		removeFirst();
+		elements[size] = null;
+		return result;
+	}
+
+
+	//This method will give us the first element in the queue, a peek() version of a queue
+	public T first() {
+		if (size == 0)
+			throw new EmptyCollectionException("priority queue");
+		return elementAt(0);
+	}
+
+	public String toString() {
+		return getClass().getName() + "[size=" + size + "]";
+	}
+
+
+	protected void swapElements(int a, int b) {
+		Object e = elements[a];
+		elements[a] = elements[b];
+		elements[b] = e;
+	}
+
+	protected void moveElement(int from, int to) {
+		elements[to] = elements[from];
+	}
+
+	protected void growElements(int capacity) {
+		elements = Arrays.copyOf(elements, capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int i) {
+		return (T) elements[i];
+	}
+
+}
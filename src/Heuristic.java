@@ -0,0 +1,27 @@
+/**
+ * - Heuristic is the interface to anything that can tell an AStarSolver how far a cell is from the end, without ever saying more than it really is
+ * - AStarSolver uses the cube distance between the two cells when it is not given one, a Landmarks table gives a sharper one on mazes with many walls
+ * - A heuristic keeps the end of the search it is used for, so every solver needs its own (the tables behind it can be shared)
+ *
+ * @author Melissa Tran
+ */
+
+public interface Heuristic
+{
+
+   /**
+    * Called once at the start of every search
+    * @param: end - the cell the search looks for
+    */
+   public void setEnd (int end);
+
+
+   /**
+    * Returns a lower bound on what the cheapest path from a cell to the end costs
+    * It must never be more than the real cost, and must not go down by more than the cost of a step between two neighbours,
+    * so that a cell never has to be expanded twice
+    * @param: cell - the cell to estimate from
+    * @return: the estimate, at least 0
+    */
+   public int estimate (int cell);
+}
@@ -0,0 +1,411 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Graphics2D;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * - HexCanvas draws a whole HexGrid on one component, there is no component per tile
+ * - The hexagons are pointed-top and every odd row is offset by half a hexagon, the same as the rows of the maze file
+ * - Every tile is drawn from one hexagon template that is made once for the tile size, only moved to the place of each tile
+ * - The canvas is meant to be put in a JScrollPane, and only the tiles inside the part that is being painted are drawn,
+ *   so the cost of a frame depends on the size of the window and not on the size of the grid
+ * - The zoom is the width of a tile in pixels, it can be changed with the mouse wheel while Ctrl is held and the grid is panned by dragging it
+ * - Below OVERVIEW_ZOOM the tiles are too small to draw one by one, and a downsampled overview image is drawn instead,
+ *   every pixel of the overview is the average colour of a square block of tiles
+ * - When a tile changes only its part of the component is repainted, and only if it can be seen
+ * - The colour of each type of tile comes from Hexagon.colorFor
+ * - The types must only be changed on the Swing thread
+ *
+ * @author Melissa Tran
+ */
+
+public class HexCanvas extends JComponent implements Scrollable {
+
+	private static final long serialVersionUID = 1L;
+
+	// The zoom a canvas starts at, and the largest zoom
+	public static final int DEFAULT_TILE_WIDTH = 26;
+	public static final int MAX_TILE_WIDTH = 64;
+
+	// Tiles narrower than this are shown in the overview image instead of one by one
+	public static final double OVERVIEW_ZOOM = 4;
+
+	// How much one notch of the mouse wheel zooms in or out
+	private static final double ZOOM_STEP = 1.25;
+
+	// The most pixels the overview image can have, bigger grids put more tiles in each pixel
+	private static final int MAX_OVERVIEW_PIXELS = 1 << 22;
+
+	// The height of a row compared to the width of a tile
+	private static final double ROW_RATIO = 0.866;
+
+	private static final Hexagon.HexType[] TYPES = Hexagon.HexType.values();
+	private static final Color[] COLORS = new Color[TYPES.length];
+	static {
+		for (Hexagon.HexType t : TYPES) {
+			COLORS[t.ordinal()] = Hexagon.colorFor(t);
+		}
+	}
+
+	// Attributes
+	private final HexGrid grid;
+	private final byte[] types;	// the type every tile is drawn as
+	private double zoom;	// the width of a tile in pixels
+	private int tileWidth;	// the zoom rounded, when the tiles are drawn one by one
+	private int tileHeight;
+	private int rowHeight;	// the rows overlap by a quarter of a tile
+	private Polygon template;	// a tile at (0, 0)
+	private final int block;	// the overview has one pixel for each block x block tiles
+	private BufferedImage overview;	// made the first time it is needed
+	private final Rectangle visible = new Rectangle();
+
+
+	/**
+	 * Creates a canvas that shows a grid at the default zoom, with every tile as it was in the maze file
+	 * @param: grid - the grid to show
+	 */
+	public HexCanvas(HexGrid grid) {
+		this.grid = grid;
+		this.types = new byte[grid.size()];
+		for (int cell = 0; cell < types.length; cell++) {
+			types[cell] = (byte) grid.getType(cell).ordinal();
+		}
+		this.block = Math.max(1, (int) Math.ceil(Math.sqrt((double) grid.size() / MAX_OVERVIEW_PIXELS)));
+		setZoomValue(DEFAULT_TILE_WIDTH);
+		setOpaque(true);
+
+		MouseAdapter mouse = new MouseAdapter() {
+			private Point grab;
+
+			public void mousePressed(MouseEvent e) {
+				grab = e.getPoint();
+			}
+
+			//Moves the grid with the mouse
+			public void mouseDragged(MouseEvent e) {
+				JViewport viewport = getViewport();
+				if (viewport == null || grab == null) {
+					return;
+				}
+				Point p = viewport.getViewPosition();
+				p.translate(grab.x - e.getX(), grab.y - e.getY());
+				viewport.setViewPosition(clamp(viewport, p));
+			}
+
+			//Zooms around the mouse while Ctrl is held, otherwise the wheel scrolls the scroll pane as usual
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				if ((e.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0) {
+					zoomAround(zoom * Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getPoint());
+				} else if (getParent() != null) {
+					getParent().dispatchEvent(SwingUtilities.convertMouseEvent(HexCanvas.this, e, getParent()));
+				}
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+		addMouseWheelListener(mouse);
+	}
+
+
+	//Returns the grid this canvas shows
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+	//Returns the type a tile is drawn as
+	public Hexagon.HexType getType(int cell) {
+		return TYPES[types[cell]];
+	}
+
+
+	/**
+	 * Changes the type a tile is drawn as, only that tile is repainted and only if it can be seen
+	 * @param: cell - the tile to change
+	 * @param: t - the new type
+	 */
+	public void setType(int cell, Hexagon.HexType t) {
+		if (types[cell] == t.ordinal()) {
+			return;
+		}
+		types[cell] = (byte) t.ordinal();
+		Rectangle bounds;
+		if (overview != null) {
+			int bx = grid.getCol(cell) / block;
+			int by = grid.getRow(cell) / block;
+			overview.setRGB(bx, by, blockColor(bx, by));
+		}
+		if (isOverview()) {
+			int r = grid.getRow(cell) / block * block;
+			int c = grid.getCol(cell) / block * block;
+			bounds = new Rectangle((int) (c * zoom), (int) (r * zoom * ROW_RATIO), (int) Math.ceil(block * zoom) + 2, (int) Math.ceil(block * zoom * ROW_RATIO) + 2);
+		} else {
+			bounds = new Rectangle(tileX(cell), tileY(cell), tileWidth, tileHeight);
+		}
+		computeVisibleRect(visible);
+		if (visible.intersects(bounds)) {
+			repaint(bounds);
+		}
+	}
+
+
+	//Returns the width of a tile in pixels
+	public double getZoom() {
+		return zoom;
+	}
+
+	/**
+	 * Changes the width of a tile, keeping the middle of the part that can be seen in the middle
+	 * @param: zoom - the new width of a tile in pixels, it is kept between getMinZoom() and MAX_TILE_WIDTH
+	 */
+	public void setZoom(double zoom) {
+		computeVisibleRect(visible);
+		zoomAround(zoom, new Point(visible.x + visible.width / 2, visible.y + visible.height / 2));
+	}
+
+	//Returns the smallest zoom, at which the whole grid is about 256 pixels across
+	public double getMinZoom() {
+		return Math.min(OVERVIEW_ZOOM, 256.0 / Math.max(1, Math.max(grid.getCols(), grid.getRows())));
+	}
+
+
+	/**
+	 * Sets the zoom so the whole grid fits in an area, but never above the default zoom
+	 * @param: width - the width of the area in pixels
+	 * @param: height - the height of the area in pixels
+	 */
+	public void zoomToFit(int width, int height) {
+		double fit = Math.min(width / (grid.getCols() + 0.5), height / ((grid.getRows() + 0.5) * ROW_RATIO));
+		setZoom(Math.min(DEFAULT_TILE_WIDTH, fit));
+	}
+
+
+	//Checks if the grid is drawn as the overview image at the current zoom
+	public boolean isOverview() {
+		return zoom < OVERVIEW_ZOOM;
+	}
+
+
+	//Returns the size of the whole grid in pixels at the current zoom
+	public Dimension getPreferredSize() {
+		if (isOverview()) {
+			return new Dimension((int) Math.ceil((grid.getCols() + 0.5) * zoom), (int) Math.ceil((grid.getRows() + 0.5) * zoom * ROW_RATIO));
+		}
+		return new Dimension(grid.getCols() * tileWidth + tileWidth / 2, (grid.getRows() - 1) * rowHeight + tileHeight);
+	}
+
+
+	//Returns the x coordinate of the left side of a tile, when the tiles are drawn one by one
+	public int tileX(int cell) {
+		int r = grid.getRow(cell);
+		return grid.getCol(cell) * tileWidth + (r % 2) * tileWidth / 2;
+	}
+
+	//Returns the y coordinate of the top of a tile, when the tiles are drawn one by one
+	public int tileY(int cell) {
+		return grid.getRow(cell) * rowHeight;
+	}
+
+
+	/**
+	 * Draws the part of the grid that needs to be painted, only the tiles inside it are looked at
+	 */
+	protected void paintComponent(Graphics g) {
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(getSize());
+		}
+		g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+		if (grid.size() == 0) {
+			return;
+		}
+		if (isOverview()) {
+			paintOverview((Graphics2D) g, clip);
+			return;
+		}
+
+		// the rows overlap, so one more row above and one more column to the left can reach into the clip
+		int cols = grid.getCols();
+		int firstRow = Math.max(0, (clip.y - tileHeight) / rowHeight);
+		int lastRow = Math.min(grid.getRows() - 1, (clip.y + clip.height) / rowHeight);
+		int firstCol = Math.max(0, (clip.x - tileWidth) / tileWidth);
+		int lastCol = Math.min(cols - 1, (clip.x + clip.width) / tileWidth);
+		for (int r = firstRow; r <= lastRow; r++) {
+			for (int c = firstCol; c <= lastCol; c++) {
+				drawTile(g, r * cols + c);
+			}
+		}
+	}
+
+
+	//Draws the part of the overview image under the clip, scaled up or down to the zoom
+	private void paintOverview(Graphics2D g, Rectangle clip) {
+		if (overview == null) {
+			makeOverview();
+		}
+		double pixelWidth = block * zoom;
+		double pixelHeight = block * zoom * ROW_RATIO;
+		int sx1 = Math.max(0, (int) (clip.x / pixelWidth));
+		int sy1 = Math.max(0, (int) (clip.y / pixelHeight));
+		int sx2 = Math.min(overview.getWidth(), (int) Math.ceil((clip.x + clip.width) / pixelWidth));
+		int sy2 = Math.min(overview.getHeight(), (int) Math.ceil((clip.y + clip.height) / pixelHeight));
+		if (sx1 >= sx2 || sy1 >= sy2) {
+			return;
+		}
+		// blocks bigger than a pixel are drawn as sharp squares, smaller ones are blended
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				pixelWidth >= 1 ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(overview, (int) (sx1 * pixelWidth), (int) (sy1 * pixelHeight), (int) Math.ceil(sx2 * pixelWidth), (int) Math.ceil(sy2 * pixelHeight),
+				sx1, sy1, sx2, sy2, null);
+	}
+
+
+	//Draws one tile, the outline is left out when the tiles are too small to see it
+	private void drawTile(Graphics g, int cell) {
+		int x = tileX(cell);
+		int y = tileY(cell);
+		g.translate(x, y);
+		g.setColor(COLORS[types[cell]]);
+		if (tileWidth >= 6) {
+			g.fillPolygon(template);
+			g.setColor(Color.BLACK);
+			g.drawPolygon(template);
+		} else {
+			g.fillRect(0, 0, tileWidth, rowHeight);
+		}
+		g.translate(-x, -y);
+	}
+
+
+	//Makes the overview image, one pixel for every block of tiles
+	private void makeOverview() {
+		int width = (grid.getCols() + block - 1) / block;
+		int height = (grid.getRows() + block - 1) / block;
+		overview = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int by = 0; by < height; by++) {
+			for (int bx = 0; bx < width; bx++) {
+				overview.setRGB(bx, by, blockColor(bx, by));
+			}
+		}
+	}
+
+
+	//Returns the average colour of a block of tiles
+	private int blockColor(int bx, int by) {
+		int cols = grid.getCols();
+		int lastRow = Math.min(grid.getRows(), (by + 1) * block);
+		int lastCol = Math.min(cols, (bx + 1) * block);
+		int red = 0;
+		int green = 0;
+		int blue = 0;
+		int n = 0;
+		for (int r = by * block; r < lastRow; r++) {
+			for (int c = bx * block; c < lastCol; c++) {
+				Color color = COLORS[types[r * cols + c]];
+				red += color.getRed();
+				green += color.getGreen();
+				blue += color.getBlue();
+				n++;
+			}
+		}
+		return ((red / n) << 16) | ((green / n) << 8) | (blue / n);
+	}
+
+
+	/**
+	 * Changes the zoom and scrolls so the same part of the grid stays under a point
+	 * @param: newZoom - the new width of a tile in pixels
+	 * @param: anchor - a point on the canvas at the old zoom
+	 */
+	private void zoomAround(double newZoom, Point anchor) {
+		newZoom = Math.max(getMinZoom(), Math.min(MAX_TILE_WIDTH, newZoom));
+		Dimension before = getPreferredSize();
+		setZoomValue(newZoom);
+		Dimension after = getPreferredSize();
+		revalidate();
+		JViewport viewport = getViewport();
+		if (viewport != null) {
+			Point p = viewport.getViewPosition();
+			int x = (int) ((long) anchor.x * after.width / Math.max(1, before.width));
+			int y = (int) ((long) anchor.y * after.height / Math.max(1, before.height));
+			p.translate(x - anchor.x, y - anchor.y);
+			viewport.setViewSize(after);
+			viewport.setViewPosition(clamp(viewport, p));
+		}
+		repaint();
+	}
+
+
+	//Sets the zoom and works out the size of a tile from it
+	private void setZoomValue(double newZoom) {
+		this.zoom = newZoom;
+		this.tileWidth = Math.max(1, (int) Math.round(newZoom));
+		this.tileHeight = Math.max(1, (int) Math.round(tileWidth / ROW_RATIO));
+		this.rowHeight = Math.max(1, tileHeight - tileHeight / 4);
+		this.template = makeTemplate(tileWidth - 1, tileHeight - 1);
+	}
+
+
+	//Returns the viewport the canvas is scrolled in, or null
+	private JViewport getViewport() {
+		return getParent() instanceof JViewport ? (JViewport) getParent() : null;
+	}
+
+
+	//Keeps a view position inside the grid
+	private Point clamp(JViewport viewport, Point p) {
+		Dimension view = viewport.getViewSize();
+		Dimension extent = viewport.getExtentSize();
+		p.x = Math.max(0, Math.min(p.x, view.width - extent.width));
+		p.y = Math.max(0, Math.min(p.y, view.height - extent.height));
+		return p;
+	}
+
+
+	//Makes the pointed-top hexagon that every tile is drawn from, a point at the top and bottom and its slanted sides a quarter of the height
+	private static Polygon makeTemplate(int w, int h) {
+		int ratio = (int) (h * .25);
+		int[] hexX = {w / 2, w, w, w / 2, 0, 0};
+		int[] hexY = {0, ratio, h - ratio, h, h - ratio, ratio};
+		return new Polygon(hexX, hexY, 6);
+	}
+
+
+	// Scrollable, a scroll bar click moves one tile and a page moves the part that can be seen
+
+	public Dimension getPreferredScrollableViewportSize() {
+		return getPreferredSize();
+	}
+
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return Math.max(1, orientation == SwingConstants.HORIZONTAL ? tileWidth : rowHeight);
+	}
+
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return Math.max(1, orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height);
+	}
+
+	public boolean getScrollableTracksViewportWidth() {
+		return false;
+	}
+
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+}
@@ -0,0 +1,384 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * - The HexGrid class is the data model of a hexagon-tile based maze, without any window or Swing components
+ * - It is built from the same file format as the Maze class, the Maze window is just a view that can be attached to a HexGrid
+ * - The first line has the number of rows and cols
+ * - Each subsequent line (there will be the same number of lines as rows) has one character per tile: W, S, E or U
+ *   or a digit 1-9 for an open tile on terrain that costs that much to step onto (mud, water...), U is the same as 1
+ *
+ * - Every tile is identified by a cell number, row*cols + col, where row and col start at 0
+ * - The type of every cell is stored in one byte (the ordinal of its Hexagon.HexType), so a grid takes 1 byte per cell
+ * - A grid loaded from a binary maze file (see BinaryMazeFormat) instead reads its cells in place from the file, 2 bits per cell
+ * - Stepping onto a cell costs 1 unless the grid has a cost layer, one more byte per cell that is only made when the maze has a tile
+ *   that costs more, so a maze of only W, S, E and U tiles takes no extra memory
+ * - Neighbours are not stored, they are worked out from the row and column with the same odd/even row offset the Maze has always used
+ * - The neighbours of a cell are accessed by a side index 0-5 inclusive, clockwise from the upper right side (see Hexagon)
+ * - A cell that does not exist (past the edge of the maze) is given as -1
+ * - The only changes a HexGrid allows are turning a cell into a wall or an open tile with setWall and changing what it costs with setCost,
+ *   every change adds 1 to the version of the grid
+ *   so anything worked out from the grid (such as a PathCache) can tell that it is out of date
+ * - Any number of threads can search the same grid at the same time, as long as it is not changed while they do
+ *   Changes must all be made by one thread, the version is volatile and goes up after the cell is changed, so a thread that reads the new
+ *   version (as PathCache and QueryEngine do before and after a search) also sees the changed cell, a grid that is never changed needs nothing more
+ *
+ * (Note: because this maze is based on hexagons, each alternating row is  offset from the left side by half a hexagon, indicated by a space in the input file)
+ * @author Melissa Tran
+ */
+public class HexGrid {
+
+	// Value used for a neighbour, start or end that does not exist
+	public static final int NO_CELL = -1;
+
+	// The most a step can cost, the highest digit a maze file can have
+	public static final int MAX_COST = 9;
+
+	// The byte stored for each type of cell that can be read from a file
+	private static final byte WALL = (byte) Hexagon.HexType.WALL.ordinal();
+	private static final byte START = (byte) Hexagon.HexType.START.ordinal();
+	private static final byte END = (byte) Hexagon.HexType.END.ordinal();
+	private static final byte UNVISITED = (byte) Hexagon.HexType.UNVISITED.ordinal();
+	private static final Hexagon.HexType[] TYPES = Hexagon.HexType.values();
+
+	// The rows and columns a step through each side moves by, the columns for even rows and then for odd rows
+	private static final int[] ROW_STEPS = {-1, 0, 1, 1, 0, -1};
+	private static final int[][] COL_STEPS = {{0, 1, 0, -1, -1, -1}, {1, 1, 1, 0, -1, 0}};
+
+	// Attributes
+	private final int rows;
+	private final int cols;
+	private byte[] types;	// The type of every cell, or null for a packed grid
+	private ByteBuffer packed;	// The type of every cell packed 2 bits per cell, 4 cells per byte, or null
+	private byte[] costs;	// What stepping onto every cell costs more than 1, or null if every step costs 1
+	private final int start;
+	private final int end;
+	private volatile int version;	// The number of changes made to the cells since the grid was built, read by other threads
+
+
+	/**
+	 * Constructor to build a HexGrid from a file containing a Maze specification
+	 * @param inFile
+	 * @throws UnknownMazeCharacterException
+	 * @throws FileNotFoundException
+	 * @throws IOException
+	 */
+	public HexGrid(String inFile) throws UnknownMazeCharacterException, FileNotFoundException, IOException{
+
+		// set up the file reader and read the first line
+		BufferedReader in;
+		String line="";
+		in = new BufferedReader(new FileReader(inFile));
+		line = in.readLine();
+
+		// Tokenize the first line to get the row and column
+		StringTokenizer lineTokens = new StringTokenizer(line);
+		this.rows = Integer.parseInt(lineTokens.nextToken());
+		this.cols = Integer.parseInt(lineTokens.nextToken());
+		this.types = new byte[rows*cols];
+		this.packed = null;
+		int start = NO_CELL;
+		int end = NO_CELL;
+
+		// for each row
+		for (int r = 0; r<rows; r++){
+			line = in.readLine();
+			lineTokens = new StringTokenizer(line);
+			for(int c = 0; c<cols; c++){
+				int cell = r*cols + c;
+				char token = lineTokens.nextToken().charAt(0);
+				types[cell] = typeCode(token);
+				if (extraCost(token) != 0){
+					if (costs == null)
+						costs = new byte[rows*cols];
+					costs[cell] = extraCost(token);
+				}
+				if (token == 'S')
+					start = cell;
+				else if (token == 'E')
+					end = cell;
+			}// end for cols
+		}// end for rows
+
+		//close the file
+		in.close();
+		this.start = start;
+		this.end = end;
+	}
+
+
+	/**
+	 * Constructor for a grid whose cells were already read, used by MappedMazeLoader
+	 * @param rows
+	 * @param cols
+	 * @param types - the byte from typeCode for every cell, the array is kept and not copied
+	 * @param costs - the byte from extraCost for every cell, or null if every step costs 1, the array is kept and not copied
+	 * @param start - the cell of the start tile, or NO_CELL
+	 * @param end - the cell of the end tile, or NO_CELL
+	 */
+	HexGrid(int rows, int cols, byte[] types, byte[] costs, int start, int end){
+		if (types.length != rows*cols || (costs != null && costs.length != rows*cols))
+			throw new IllegalArgumentException("A " + rows + "x" + cols + " grid needs " + rows*cols + " cells, not " + types.length);
+		this.rows = rows;
+		this.cols = cols;
+		this.types = types;
+		this.packed = null;
+		this.costs = costs;
+		this.start = start;
+		this.end = end;
+	}
+
+
+	/**
+	 * Constructor for a grid that reads its cells in place from a packed buffer, used by BinaryMazeFormat
+	 * Cell i is in bits 2*(i%4) and 2*(i%4)+1 of byte i/4, and the 2 bits are the same as the byte from typeCode
+	 * @param rows
+	 * @param cols
+	 * @param packed - the packed cells, from index 0, the buffer is kept and not copied and must not be changed afterwards
+	 * @param start - the cell of the start tile, or NO_CELL
+	 * @param end - the cell of the end tile, or NO_CELL
+	 */
+	HexGrid(int rows, int cols, ByteBuffer packed, int start, int end){
+		if (packed.capacity() < ((long) rows*cols + 3) / 4)
+			throw new IllegalArgumentException("A " + rows + "x" + cols + " grid needs " + ((long) rows*cols + 3) / 4 + " bytes, not " + packed.capacity());
+		this.rows = rows;
+		this.cols = cols;
+		this.types = null;
+		this.packed = packed;
+		this.start = start;
+		this.end = end;
+	}
+
+
+	/**
+	 * Returns the byte that a character of a maze file is stored as, a digit is an Unvisited tile
+	 * @param token - W, S, E, U or a digit 1-9
+	 * @throws UnknownMazeCharacterException - for any other character
+	 */
+	static byte typeCode(char token) throws UnknownMazeCharacterException{
+		switch(token){
+		case 'W':
+			return WALL;
+		case 'S':
+			return START;
+		case 'E':
+			return END;
+		case 'U':
+			return UNVISITED;
+		case '1': case '2': case '3': case '4': case '5': case '6': case '7': case '8': case '9':
+			return UNVISITED;
+		default:
+			// cannot build correct Maze
+			throw new UnknownMazeCharacterException(token);
+		}
+	}
+
+
+	//Returns the byte that the cost of a character of a maze file is stored as, how much more than 1 it costs (0 for anything but the digits 2-9)
+	static byte extraCost(char token){
+		return token >= '2' && token <= '9' ? (byte) (token - '1') : 0;
+	}
+
+
+	//Returns the number of rows in the grid
+	public int getRows(){
+		return rows;
+	}
+
+	//Returns the number of columns in the grid
+	public int getCols(){
+		return cols;
+	}
+
+	//Returns the number of cells in the grid
+	public int size(){
+		return rows*cols;
+	}
+
+	//Returns the cell number of the start tile, or NO_CELL if the maze has no start
+	public int getStart(){
+		return start;
+	}
+
+	//Returns the cell number of the end tile, or NO_CELL if the maze has no end
+	public int getEnd(){
+		return end;
+	}
+
+	//Returns the number of changes made to the cells since the grid was built, it is different after every change
+	public int getVersion(){
+		return version;
+	}
+
+	//Returns the type of the cell, as it was in the maze file unless it was changed with setWall
+	public Hexagon.HexType getType(int cell){
+		return TYPES[code(cell)];
+	}
+
+	//Returns what it costs to step onto the cell, from 1 up to MAX_COST
+	public int getCost(int cell){
+		return costs == null ? 1 : 1 + costs[cell];
+	}
+
+	//Checks if the grid has a cost layer, if it does not every step costs 1
+	public boolean hasCosts(){
+		return costs != null;
+	}
+
+	//Checks if the cell is a Wall tile
+	public boolean isWall(int cell){
+		return code(cell) == WALL;
+	}
+
+	//Returns the row of the cell, starting at 0
+	public int getRow(int cell){
+		return cell / cols;
+	}
+
+	//Returns the column of the cell, starting at 0
+	public int getCol(int cell){
+		return cell % cols;
+	}
+
+	/**
+	 * Returns the neighbour of a cell on the given side, or NO_CELL if that side is the edge of the maze
+	 * Every odd row is shifted half a hexagon to the right, so the neighbours above and below are one column further right on odd rows
+	 * @param: cell - the cell to look around
+	 * @param: i - the side of the hexagon (0-5 inclusive)
+	 * @exception: InvalidNeighbourIndexException - when an index is specified that is not 0-5 inclusive
+	 */
+	public int getNeighbour(int cell, int i) throws InvalidNeighbourIndexException{
+		if (i < 0 || i > 5)
+			throw new InvalidNeighbourIndexException(i);
+		int r = cell / cols;
+		return getNeighbour(r, cell - r*cols, i);
+	}
+
+	/**
+	 * Returns the neighbour of the cell at a row and column, for a loop that already knows the row and column of the cell it is on
+	 * @param: row - the row of the cell
+	 * @param: col - the column of the cell
+	 * @param: side - the side of the hexagon (0-5 inclusive)
+	 * @return: the neighbour, or NO_CELL if that side is the edge of the maze
+	 */
+	public int getNeighbour(int row, int col, int side){
+		return cellAt(row + ROW_STEPS[side], col + COL_STEPS[row & 1][side]);
+	}
+
+	//Returns the number of rows a step through a side moves by, the same for every row
+	public static int rowStep(int side){
+		return ROW_STEPS[side];
+	}
+
+	//Returns the number of columns a step through a side moves by from a row, every odd row is shifted half a hexagon to the right
+	public static int colStep(int row, int side){
+		return COL_STEPS[row & 1][side];
+	}
+
+	/**
+	 * Returns the side of a cell that another cell is on, so that getNeighbour(cell, getSide(cell, neighbour)) == neighbour
+	 * @param: cell - the cell to look around
+	 * @param: neighbour - the cell next to it
+	 * @return: the side (0-5 inclusive), or -1 if the two cells are not next to each other
+	 */
+	public int getSide(int cell, int neighbour){
+		for (int i = 0; i <= 5; i++){
+			if (getNeighbour(cell, i) == neighbour)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the axial q coordinate of the cell
+	 * Axial coordinates do not depend on the odd row offset: moving to side 1 adds 1 to q, moving to side 2 adds 1 to r,
+	 * and moving to side 0 adds 1 to q and takes 1 from r (the third cube coordinate is -q-r)
+	 */
+	public int getAxialQ(int cell){
+		int r = cell / cols;
+		return cell - r*cols - (r - r%2)/2;
+	}
+
+	//Returns the axial r coordinate of the cell, which is the same as its row
+	public int getAxialR(int cell){
+		return cell / cols;
+	}
+
+	/**
+	 * Returns the number of steps between two cells if there were no walls in the way
+	 * This is the cube distance between the axial coordinates, it never overestimates the real distance
+	 * and changes by at most 1 between neighbours, so it can be used as the A* heuristic
+	 */
+	public int distanceBetween(int a, int b){
+		return cubeDistance(getAxialQ(a) - getAxialQ(b), getAxialR(a) - getAxialR(b));
+	}
+
+	//Returns the cube distance between two hexagons whose axial coordinates differ by dq and dr, the same number distanceBetween gives for two cells
+	public static int cubeDistance(int dq, int dr){
+		return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+	}
+
+
+	/**
+	 * Turns a cell into a Wall tile or an Unvisited tile, the version of the grid goes up if the type of the cell changed
+	 * A packed grid is copied into one byte per cell the first time it is changed, the file it was read from is never written
+	 * The grid must not be changed while another thread is searching it
+	 * @param: cell - the cell to change
+	 * @param: wall - true for a Wall tile, false for an Unvisited tile
+	 * @exception: IllegalArgumentException - if the cell is the start or the end, they cannot be changed
+	 */
+	public void setWall(int cell, boolean wall){
+		if (cell == start || cell == end)
+			throw new IllegalArgumentException("The start and end cannot be changed");
+		byte code = wall ? WALL : UNVISITED;
+		if (code(cell) == code)
+			return;
+		if (types == null){
+			types = new byte[rows*cols];
+			for (int i = 0; i < types.length; i++){
+				types[i] = (byte) code(i);
+			}
+			packed = null;
+		}
+		types[cell] = code;
+		version++;
+	}
+
+
+	/**
+	 * Changes what it costs to step onto a cell, the version of the grid goes up if the cost changed
+	 * The cost layer is made the first time a cell is given a cost other than 1
+	 * The grid must not be changed while another thread is searching it
+	 * @param: cell - the cell to change
+	 * @param: cost - from 1 up to MAX_COST
+	 * @exception: IllegalArgumentException - if the cost is not in that range
+	 */
+	public void setCost(int cell, int cost){
+		if (cost < 1 || cost > MAX_COST)
+			throw new IllegalArgumentException("A step must cost from 1 to " + MAX_COST + ", not " + cost);
+		if (getCost(cell) == cost)
+			return;
+		if (costs == null)
+			costs = new byte[rows*cols];
+		costs[cell] = (byte) (cost - 1);
+		version++;
+	}
+
+
+	//Helper method that returns the byte from typeCode for a cell, from whichever storage the grid has
+	private int code(int cell){
+		if (types != null)
+			return types[cell];
+		return (packed.get(cell >>> 2) >>> ((cell & 3) << 1)) & 3;
+	}
+
+
+	//Helper method that returns the cell at a row and column, or NO_CELL if it is outside of the grid
+	private int cellAt(int r, int c){
+		if (r < 0 || r >= rows || c < 0 || c >= cols)
+			return NO_CELL;
+		return r*cols + c;
+	}
+
+}
@@ -0,0 +1,240 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * - HexPath is a path through a HexGrid, stored as the start cell and the side (0-5 inclusive) that each step leaves through,
+ *   the same side numbers as HexGrid.getNeighbour
+ * - A side fits in 3 bits, so the steps are packed 3 bits each into a byte array, a path of n steps takes (3n + 7) / 8 bytes
+ *   instead of one int per cell
+ * - Step i is in bits 3i to 3i + 2 of the array, counting from the lowest bit of the first byte, so the bytes can be sent
+ *   to a client as they are and read back with the public constructor or readFrom
+ * - The cells on the path are only worked out when they are asked for, with toCells and the grid the path goes through
+ *
+ * @author Melissa Tran
+ */
+
+public class HexPath {
+
+	private static final int BITS_PER_STEP = 3;
+
+	// Attributes
+	private final int start;
+	private final int length;
+	private final byte[] packed;
+
+
+	/**
+	 * Creates a path from steps that were already packed, for example ones that were read from a client
+	 * @param: start - the cell the path starts at
+	 * @param: length - the number of steps
+	 * @param: packed - the packed steps, the array is copied
+	 * @exception: IllegalArgumentException - if the array is too short for the number of steps or a step is not 0-5
+	 */
+	public HexPath(int start, int length, byte[] packed) {
+		if (length < 0 || packed.length < bytesFor(length)) {
+			throw new IllegalArgumentException("A path of " + length + " steps needs " + bytesFor(Math.max(0, length)) + " bytes");
+		}
+		this.start = start;
+		this.length = length;
+		this.packed = Arrays.copyOf(packed, bytesFor(length));
+		int usedBits = (length * BITS_PER_STEP) & 7;
+		if (usedBits != 0) {
+			this.packed[this.packed.length - 1] &= (byte) ((1 << usedBits) - 1);	// the bits after the last step are always 0
+		}
+		for (int i = 0; i < length; i++) {
+			if (getDirection(i) > 5) {
+				throw new IllegalArgumentException("Step " + i + " has no side " + getDirection(i));
+			}
+		}
+	}
+
+
+	private HexPath(int start, byte[] packed, int length) {
+		this.start = start;
+		this.length = length;
+		this.packed = packed;
+	}
+
+
+	/**
+	 * Follows the parents of a finished search back from a cell to the start of the search
+	 * @param: grid - the grid that was searched
+	 * @param: context - the context of the search, the cell must have been reached by it
+	 * @param: end - the cell the path goes to
+	 * @return: the path the search found from its start to the cell
+	 * @exception: IllegalArgumentException - if the search did not reach the cell
+	 */
+	public static HexPath fromParents(HexGrid grid, SearchContext context, int end) {
+		if (!context.isReached(end)) {
+			throw new IllegalArgumentException("The search did not reach cell " + end);
+		}
+		// the steps of the context are the cost of the path, which is only its length when every step costs 1
+		int length = 0;
+		for (int cell = context.getParent(end); cell != HexGrid.NO_CELL; cell = context.getParent(cell)) {
+			length++;
+		}
+		byte[] packed = new byte[bytesFor(length)];
+		int cell = end;
+		for (int i = length - 1; i >= 0; i--) {
+			int parent = context.getParent(cell);
+			setDirection(packed, i, grid.getSide(parent, cell));
+			cell = parent;
+		}
+		return new HexPath(cell, packed, length);
+	}
+
+
+	/**
+	 * Makes a path from the cells it goes through
+	 * @param: grid - the grid the path goes through
+	 * @param: cells - the cells in order from the start, each one next to the one before it
+	 * @return: the path
+	 * @exception: IllegalArgumentException - if there are no cells or two cells in a row are not next to each other
+	 */
+	public static HexPath fromCells(HexGrid grid, int[] cells) {
+		if (cells.length == 0) {
+			throw new IllegalArgumentException("A path needs at least one cell");
+		}
+		int length = cells.length - 1;
+		byte[] packed = new byte[bytesFor(length)];
+		for (int i = 0; i < length; i++) {
+			int side = grid.getSide(cells[i], cells[i + 1]);
+			if (side < 0) {
+				throw new IllegalArgumentException("Cell " + cells[i + 1] + " is not next to cell " + cells[i]);
+			}
+			setDirection(packed, i, side);
+		}
+		return new HexPath(cells[0], packed, length);
+	}
+
+
+	/**
+	 * Reads a path that was written with writeTo
+	 * @param: in - where to read the path from
+	 * @return: the path
+	 * @throws IOException - if the path could not be read
+	 */
+	public static HexPath readFrom(DataInput in) throws IOException {
+		int start = in.readInt();
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("A path cannot have " + length + " steps");
+		}
+		byte[] packed = new byte[bytesFor(length)];
+		in.readFully(packed);
+		return new HexPath(start, length, packed);
+	}
+
+
+	//Returns the number of bytes needed to pack a number of steps
+	public static int bytesFor(int length) {
+		return (int) (((long) length * BITS_PER_STEP + 7) / 8);
+	}
+
+
+	//Returns the cell the path starts at
+	public int getStart() {
+		return start;
+	}
+
+	//Returns the number of steps in the path, one less than the number of cells on it
+	public int length() {
+		return length;
+	}
+
+
+	/**
+	 * Returns the side that a step of the path leaves its cell through
+	 * @param: i - the step, from 0 to length() - 1
+	 * @return: the side (0-5 inclusive)
+	 * @exception: IndexOutOfBoundsException - if there is no such step
+	 */
+	public int getDirection(int i) {
+		if (i < 0 || i >= length) {
+			throw new IndexOutOfBoundsException("Step " + i + " of a path with " + length + " steps");
+		}
+		int bit = i * BITS_PER_STEP;
+		int b = bit >>> 3;
+		int shift = bit & 7;
+		int value = (packed[b] & 0xFF) >>> shift;
+		if (shift > 8 - BITS_PER_STEP) {
+			value |= (packed[b + 1] & 0xFF) << (8 - shift);
+		}
+		return value & 7;
+	}
+
+
+	/**
+	 * Walks the path through a grid and returns every cell on it, from the start to the end
+	 * @param: grid - the grid the path goes through
+	 * @return: length() + 1 cells
+	 */
+	public int[] toCells(HexGrid grid) {
+		int[] cells = new int[length + 1];
+		cells[0] = start;
+		for (int i = 0; i < length; i++) {
+			cells[i + 1] = grid.getNeighbour(cells[i], getDirection(i));
+		}
+		return cells;
+	}
+
+
+	//Returns a copy of the packed steps, bytesFor(length()) bytes
+	public byte[] toByteArray() {
+		return packed.clone();
+	}
+
+
+	/**
+	 * Writes the path as the start cell, the number of steps and the packed steps
+	 * @param: out - where to write the path
+	 * @throws IOException - if the path could not be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(start);
+		out.writeInt(length);
+		out.write(packed);
+	}
+
+
+	//Returns the sides of the steps as one digit each, eg. "1122" for two steps on side 1 and then two on side 2
+	public String toDirectionString() {
+		StringBuilder directions = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			directions.append((char) ('0' + getDirection(i)));
+		}
+		return directions.toString();
+	}
+
+
+	public boolean equals(Object other) {
+		if (!(other instanceof HexPath)) {
+			return false;
+		}
+		HexPath path = (HexPath) other;
+		return start == path.start && length == path.length && Arrays.equals(packed, path.packed);
+	}
+
+	public int hashCode() {
+		return 31 * (31 * start + length) + Arrays.hashCode(packed);
+	}
+
+	public String toString() {
+		return getClass().getName() + "[start=" + start + ",length=" + length + ",directions=" + toDirectionString() + "]";
+	}
+
+
+	//Packs the side of a step into an array that is still all zeros there
+	private static void setDirection(byte[] packed, int i, int side) {
+		int bit = i * BITS_PER_STEP;
+		int b = bit >>> 3;
+		int shift = bit & 7;
+		packed[b] |= (byte) (side << shift);
+		if (shift > 8 - BITS_PER_STEP) {
+			packed[b + 1] |= (byte) (side >>> (8 - shift));
+		}
+	}
+
+}
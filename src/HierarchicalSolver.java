@@ -0,0 +1,249 @@
+/**
+ * - HierarchicalSolver finds paths on big grids by searching the small abstract graph of a ClusterGraph instead of every cell (HPA*)
+ * - A query has three parts
+ *   The start and the end are joined to the nodes of their own clusters, with a breadth first search that stays inside each cluster
+ *   A* searches the abstract graph from the start to the end, with the same cube distance heuristic as AStarSolver
+ *   Each edge of the abstract path is refined into cells, only the clusters the path goes through are searched again
+ * - The ClusterGraph is built once and shared, after that the work of a query depends on the number of clusters between the start and the end
+ *   and not on the size of the grid
+ * - The path can be a little longer than the shortest one, because it can only cross between clusters at the crossings the graph kept,
+ *   if the start and end are in the same cluster the path that stays inside the cluster is tried as well
+ * - The statistics count the nodes of the abstract search, plus every cell the local searches went through
+ * - Like the other solvers the queue and context are reused by every query, a solver must only be used by one thread at a time,
+ *   but any number of solvers can share one ClusterGraph
+ *
+ * @author Melissa Tran
+ */
+
+public class HierarchicalSolver implements PathFinder {
+
+	// Attributes
+	private final ClusterGraph graph;
+	private final HexGrid grid;
+	private final ClusterGraph.LocalSearch local;
+	private final IndexedIntPriorityQueue queue;
+	private final SearchContext context;	// for the nodes of the graph, plus the start and the end after them
+	private final int startNode;
+	private final int endNode;
+	private SearchListener listener;
+
+	// The query that is being searched
+	private int start;
+	private int end;
+	private int startCluster;
+	private int endCluster;
+	private int[] startLengths = new int[0];	// the length from the start to each node of its cluster, or -1
+	private int[] endLengths = new int[0];	// the length from each node of the end's cluster to the end, or -1
+	private int directLength;	// the length from the start to the end inside their cluster, or -1
+	private int enqueues;
+	private int decreaseKeys;
+
+
+	/**
+	 * Creates a solver that builds the abstract graph of a grid with the default cluster size
+	 * @param: grid - the maze to search
+	 */
+	public HierarchicalSolver(HexGrid grid) {
+		this(new ClusterGraph(grid));
+	}
+
+
+	/**
+	 * Creates a solver that searches an abstract graph that was already built
+	 * @param: graph - the abstract graph, it can be shared with other solvers
+	 */
+	public HierarchicalSolver(ClusterGraph graph) {
+		this.graph = graph;
+		this.grid = graph.getGrid();
+		this.local = new ClusterGraph.LocalSearch(graph);
+		this.startNode = graph.getNodeCount();
+		this.endNode = graph.getNodeCount() + 1;
+		this.queue = new IndexedIntPriorityQueue(graph.getNodeCount() + 2);
+		this.context = new SearchContext(graph.getNodeCount() + 2);
+	}
+
+
+	//Returns the abstract graph this solver searches
+	public ClusterGraph getGraph() {
+		return graph;
+	}
+
+
+	//Sets the listener that is told about every change to a cell, null for no listener
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+
+	//Searches from the start tile of the grid to the end tile of the grid
+	public SearchResult solve() {
+		return solve(grid.getStart(), grid.getEnd());
+	}
+
+
+	/**
+	 * Searches for a path between two cells through the abstract graph, then refines it into cells
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the statistics of the search and the path to the end, the end is not found if the start or end is a wall
+	 * @exception: IllegalArgumentException - if there is no start or no end cell
+	 * @exception: IllegalStateException - if the grid was changed after the graph was built
+	 */
+	public SearchResult solve(int start, int end) {
+		if (start == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("The maze has no start");
+		}
+		if (end == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("A hierarchical search needs an end");
+		}
+		if (!graph.isCurrent()) {
+			throw new IllegalStateException("The maze was changed after its cluster graph was built");
+		}
+		if (grid.isWall(start) || grid.isWall(end)) {
+			// a wall cannot be part of a path, the local searches would start from it and the refined path would not join up
+			return SearchResult.notFound();
+		}
+		this.start = start;
+		this.end = end;
+		int localBefore = local.getExpansions();
+		connect();
+
+		int expansions = 0;
+		int peakQueueSize = 1;
+		enqueues = 0;
+		decreaseKeys = 0;
+		boolean isThereEnd = false;
+
+		context.reset();
+		queue.clear();
+		notify(start, Hexagon.HexType.START_PROCESSED);
+		context.reach(startNode, 0, HexGrid.NO_CELL);
+		queue.enqueue(startNode, grid.distanceBetween(start, end));
+
+		while (!queue.isEmpty()) {
+			int node = queue.dequeueInt();
+			context.close(node);
+			int steps = context.getSteps(node);
+			notify(cellOf(node), Hexagon.HexType.CURRENT);
+			expansions++;
+
+			if (node == endNode) {
+				notify(end, Hexagon.HexType.END_PROCESSED);
+				isThereEnd = true;
+				break;
+			}
+
+			// the edges of the graph, and the edges to and from the start and end that were made for this query
+			if (node == startNode) {
+				int first = graph.getFirstNode(startCluster);
+				for (int i = 0; i < startLengths.length; i++) {
+					if (startLengths[i] >= 0)
+						relax(node, first + i, steps + startLengths[i]);
+				}
+				if (directLength >= 0)
+					relax(node, endNode, steps + directLength);
+			} else {
+				for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeStart(node + 1); edge++) {
+					relax(node, graph.getEdgeTarget(edge), steps + graph.getEdgeLength(edge));
+				}
+				int i = node - graph.getFirstNode(endCluster);
+				if (i >= 0 && i < endLengths.length && endLengths[i] >= 0)
+					relax(node, endNode, steps + endLengths[i]);
+			}
+			peakQueueSize = Math.max(peakQueueSize, queue.size());
+
+			notify(cellOf(node), node == startNode ? Hexagon.HexType.START_PROCESSED : Hexagon.HexType.DEQUEUED);
+		}
+
+		HexPath path = isThereEnd ? refine() : null;
+		int localCells = local.getExpansions() - localBefore;
+		return new SearchResult(isThereEnd, isThereEnd ? context.getSteps(endNode) : -1, queue.size(),
+				expansions + localCells, enqueues + localCells, decreaseKeys, peakQueueSize, path);
+	}
+
+
+	//Reaches a node from another node if it is new or the route is shorter
+	private void relax(int from, int node, int steps) {
+		if (!context.isReached(node)) {
+			context.reach(node, steps, from);
+			queue.enqueue(node, steps + grid.distanceBetween(cellOf(node), end));
+			notify(cellOf(node), Hexagon.HexType.ENQUEUED);
+			enqueues++;
+		}
+		else if (context.isEnqueued(node) && steps < context.getSteps(node)) {
+			context.reach(node, steps, from);
+			queue.decreaseKey(node, steps + grid.distanceBetween(cellOf(node), end));
+			decreaseKeys++;
+		}
+	}
+
+
+	//Finds the lengths from the start to the nodes of its cluster, and from the nodes of the end's cluster to the end
+	private void connect() {
+		startCluster = graph.clusterOf(start);
+		endCluster = graph.clusterOf(end);
+		local.run(start);
+		startLengths = clusterLengths(startCluster, startLengths);
+		directLength = local.distance(end);
+		local.run(end);
+		endLengths = clusterLengths(endCluster, endLengths);
+	}
+
+
+	//Copies the lengths the last local search found to the nodes of a cluster, reusing the array when it is the right size
+	private int[] clusterLengths(int cluster, int[] lengths) {
+		int first = graph.getFirstNode(cluster);
+		int count = graph.getFirstNode(cluster + 1) - first;
+		if (lengths.length != count)
+			lengths = new int[count];
+		for (int i = 0; i < count; i++) {
+			lengths[i] = local.distance(graph.getNodeCell(first + i));
+		}
+		return lengths;
+	}
+
+
+	//Follows the abstract path back from the end and fills in the cells of every edge on it
+	private HexPath refine() {
+		int[] cells = new int[context.getSteps(endNode) + 1];
+		int i = cells.length - 1;
+		int node = endNode;
+		cells[i] = end;
+		while (node != startNode) {
+			int parent = context.getParent(node);
+			int from = cellOf(parent);
+			int to = cellOf(node);
+			if (graph.clusterOf(from) != graph.clusterOf(to)) {
+				// a crossing between two clusters is a single step
+				cells[--i] = from;
+			} else {
+				// the shortest way through the cluster, found again only for the clusters on the path
+				local.run(from);
+				for (int cell = local.parent(to); cell != HexGrid.NO_CELL; cell = local.parent(cell)) {
+					cells[--i] = cell;
+				}
+			}
+			node = parent;
+		}
+		return HexPath.fromCells(grid, cells);
+	}
+
+
+	//Returns the cell of a node of the graph, or the start or end of the query
+	private int cellOf(int node) {
+		if (node == startNode)
+			return start;
+		if (node == endNode)
+			return end;
+		return graph.getNodeCell(node);
+	}
+
+
+	//Helper method to tell the listener about a change, if there is one
+	private void notify(int cell, Hexagon.HexType state) {
+		if (listener != null) {
+			listener.cellChanged(cell, state);
+		}
+	}
+
+}
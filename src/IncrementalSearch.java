@@ -0,0 +1,394 @@
+/**
+ * - IncrementalSearch is an A* search that can be run a little at a time, so a long search can be spread over many frames
+ *   instead of holding up one of them
+ * - begin sets up a search, and each call to step expands at most a given number of cells or runs until a deadline from System.nanoTime,
+ *   the queue and the context are kept between calls so the next call goes on where the last one stopped
+ * - It is the only copy of the A* search: AStarSolver runs one to the end in a single call, so the step costs, the epsilon
+ *   and the Heuristic are the same whether a search is sliced or not
+ * - While it is not finished the best cell so far can be asked for, the expanded cell that is estimated to be closest to the end
+ *   (the one with the shortest path if two are as close), with the path to it, so a unit can already start walking towards the end
+ * - A scheduler can keep one IncrementalSearch per query and give each of them a share of the time of a frame, eg.
+ *   search.stepUntil(System.nanoTime() + 2000000) for 2 ms, every search has its own context and queue, about 16 bytes per cell of the grid with an IndexedIntPriorityQueue
+ * - A queue without decreaseKey (a LinkedPriorityQueue or a HeapPriorityQueue) is given the cell a second time when a cheaper route to it is found,
+ *   the entry left behind is skipped when it comes out of the queue, so every queue finds the same cheapest paths
+ * - The grid must not be changed while a search is going on, step throws an IllegalStateException if it was
+ * - It is also a PathFinder, whose solve runs the whole search in one call
+ *
+ * @author Melissa Tran
+ */
+
+public class IncrementalSearch implements PathFinder {
+
+	// The number of cells expanded between two looks at the clock when stepping until a deadline, the first look is after the first cell
+	private static final int CLOCK_INTERVAL = 16;
+
+	// Attributes
+	private final HexGrid grid;
+	private final PriorityQueueADT<Integer> queue;
+	private final IndexedPriorityQueueADT<Integer> indexedQueue;	// the same queue when it supports decreaseKey, otherwise null
+	private final IndexedIntPriorityQueue intQueue;	// the same queue when it takes int cells without boxing, otherwise null
+	private final SearchContext context;
+	private SearchListener listener;
+	private double epsilon;	// how much the heuristic is weighted above 1, 0 for the cheapest path
+	private Heuristic heuristic;	// null for the cube distance
+
+	// The search that is going on
+	private int start = HexGrid.NO_CELL;
+	private int end = HexGrid.NO_CELL;
+	private int endQ;
+	private int endR;
+	private double weight;
+	private Heuristic estimator;	// the heuristic of this search, null for the cube distance
+	private int version;	// the version of the grid the search began on
+	private boolean finished = true;
+	private boolean endFound;
+	private int bestCell = HexGrid.NO_CELL;
+	private int bestDistance;
+
+	// The statistics of the search so far
+	private int expansions;
+	private int enqueues;
+	private int decreaseKeys;
+	private int peakQueueSize;
+	private int staleEntries;	// the entries of cells that were given to a queue without decreaseKey again, and are still in it
+
+
+	//@param grid - the maze to search, nothing is searched until begin is called
+	public IncrementalSearch(HexGrid grid) {
+		this(grid, new IndexedIntPriorityQueue(grid.size()), new SearchContext(grid.size()));
+	}
+
+
+	/**
+	 * Creates a search for a grid that keeps its bookkeeping in a queue and a context that were already made
+	 * @param: grid - the maze to search
+	 * @param: queue - the priority queue to store the cells in, if it is an IndexedPriorityQueueADT an enqueued cell is moved forward when a cheaper route to it is found, otherwise it is enqueued again
+	 * @param: context - the context to reuse, it must be at least as big as the grid and not be used by anything else while searching
+	 * @exception: IllegalArgumentException - if the context is smaller than the grid
+	 */
+	public IncrementalSearch(HexGrid grid, PriorityQueueADT<Integer> queue, SearchContext context) {
+		if (context.size() < grid.size()) {
+			throw new IllegalArgumentException("The search context is smaller than the grid");
+		}
+		this.grid = grid;
+		this.queue = queue;
+		this.context = context;
+		this.indexedQueue = queue instanceof IndexedPriorityQueueADT ? (IndexedPriorityQueueADT<Integer>) queue : null;
+		this.intQueue = queue instanceof IndexedIntPriorityQueue ? (IndexedIntPriorityQueue) queue : null;
+	}
+
+
+	//Returns the context that holds the steps and parents of the search
+	public SearchContext getContext() {
+		return context;
+	}
+
+
+	//Sets the listener that is told about every change to a cell, null for no listener
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+
+	//Returns how much the heuristic is weighted above 1, 0 unless setEpsilon was called
+	public double getEpsilon() {
+		return epsilon;
+	}
+
+
+	/**
+	 * Sets how much the heuristic is weighted above 1, it is used from the next call to begin
+	 * @param: epsilon - 0 for the cheapest paths (the default), or more to expand fewer cells
+	 * @exception: IllegalArgumentException - if epsilon is less than 0
+	 */
+	public void setEpsilon(double epsilon) {
+		if (!(epsilon >= 0)) {
+			throw new IllegalArgumentException("Epsilon must be at least 0, not " + epsilon);
+		}
+		this.epsilon = epsilon;
+	}
+
+
+	//Returns the heuristic the searches use, null for the cube distance
+	public Heuristic getHeuristic() {
+		return heuristic;
+	}
+
+
+	/**
+	 * Sets the heuristic the searches use from the next call to begin, it must never say more than what the rest of a path really costs
+	 * @param: heuristic - eg. Landmarks.newHeuristic(), a heuristic can only be given to one search, null for the cube distance (the default)
+	 */
+	public void setHeuristic(Heuristic heuristic) {
+		this.heuristic = heuristic;
+	}
+
+
+	/**
+	 * Starts a new search, throwing away the one that was going on, nothing is expanded until step is called
+	 * If the start or the end is a wall the search is finished straight away, without finding the end
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for, or HexGrid.NO_CELL to explore everything reachable from the start
+	 * @exception: IllegalArgumentException - if there is no start cell
+	 */
+	public void begin(int start, int end) {
+		if (start == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("The maze has no start");
+		}
+		// anything left over from a previous search is thrown away
+		context.reset();
+		clearQueue();
+		this.start = start;
+		this.end = end;
+		this.endQ = end != HexGrid.NO_CELL ? grid.getAxialQ(end) : 0;
+		this.endR = end != HexGrid.NO_CELL ? grid.getAxialR(end) : 0;
+		this.weight = 1 + epsilon;
+		this.estimator = end != HexGrid.NO_CELL ? heuristic : null;
+		if (estimator != null) {
+			estimator.setEnd(end);
+		}
+		this.version = grid.getVersion();
+		this.finished = false;
+		this.endFound = false;
+		this.bestCell = HexGrid.NO_CELL;
+		this.bestDistance = Integer.MAX_VALUE;
+		this.expansions = 0;
+		this.enqueues = 0;
+		this.decreaseKeys = 0;
+		this.peakQueueSize = 1;
+		this.staleEntries = 0;
+		if (grid.isWall(start) || end != HexGrid.NO_CELL && grid.isWall(end)) {
+			// a wall cannot be part of a path, there is nothing to search
+			this.peakQueueSize = 0;
+			this.finished = true;
+			return;
+		}
+
+		notify(start, Hexagon.HexType.START_PROCESSED);
+		context.reach(start, 0, HexGrid.NO_CELL);
+		enqueue(start, 0);
+	}
+
+
+	/**
+	 * Goes on with the search for at most a number of expansions
+	 * @param: maxExpansions - the most cells to expand in this call
+	 * @return: true if the search is finished, because the end was found or every reachable cell was expanded
+	 * @exception: IllegalStateException - if begin was never called, or the grid was changed since the search began
+	 */
+	public boolean step(int maxExpansions) {
+		return step(maxExpansions, 0, false, true);
+	}
+
+
+	/**
+	 * Goes on with the search until a deadline, at least one cell is expanded so a search always makes progress
+	 * The clock is looked at after the first expansion, so a deadline that has already passed expands exactly one cell,
+	 * and then only every few expansions, so the deadline can be passed by the time a few cells take (well under a microsecond each)
+	 * @param: deadlineNanos - the value of System.nanoTime() to stop at
+	 * @return: true if the search is finished, because the end was found or every reachable cell was expanded
+	 * @exception: IllegalStateException - if begin was never called, or the grid was changed since the search began
+	 */
+	public boolean stepUntil(long deadlineNanos) {
+		return step(Integer.MAX_VALUE, deadlineNanos, true, true);
+	}
+
+
+	/**
+	 * Runs the search to the end in one call, this is what AStarSolver.solve does
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for, or HexGrid.NO_CELL to explore everything reachable from the start
+	 * @return: the statistics of the search and the path to the end, the steps of the result are what the path costs,
+	 *          the end is not found if the start or end is a wall
+	 * @exception: IllegalArgumentException - if there is no start cell
+	 */
+	public SearchResult solve(int start, int end) {
+		begin(start, end);
+		step(Integer.MAX_VALUE, 0, false, false);
+		return getResult();
+	}
+
+
+	//Returns true if the search is finished, or no search was begun
+	public boolean isFinished() {
+		return finished;
+	}
+
+
+	//Returns true if the search has found the end
+	public boolean isEndFound() {
+		return endFound;
+	}
+
+
+	//Returns the number of cells expanded so far
+	public int getExpansions() {
+		return expansions;
+	}
+
+
+	//Returns the expanded cell that is estimated to be closest to the end, the end itself once it is found, or HexGrid.NO_CELL if nothing was expanded yet (or solve ran the search)
+	public int getBestCell() {
+		return bestCell;
+	}
+
+
+	//Returns the path from the start to the best cell so far, or null if nothing was expanded yet
+	public HexPath getBestPath() {
+		return bestCell == HexGrid.NO_CELL ? null : HexPath.fromParents(grid, context, bestCell);
+	}
+
+
+	/**
+	 * Returns the statistics of the search so far
+	 * @return: a result with the path to the end if it was found, a search that is not finished has not found the end and has no path yet
+	 */
+	public SearchResult getResult() {
+		return new SearchResult(endFound, endFound ? context.getSteps(end) : -1, queue.size() - staleEntries,
+				expansions, enqueues, decreaseKeys, peakQueueSize, endFound ? HexPath.fromParents(grid, context, end) : null);
+	}
+
+
+	/**
+	 * Expands cells until the search is finished, the number of expansions is used up or (if there is one) the deadline has passed
+	 * @param: trackBest - false when the search is run to the end in one call, nobody can ask for the best cell before it finishes so its estimate is not worked out
+	 */
+	private boolean step(int maxExpansions, long deadlineNanos, boolean hasDeadline, boolean trackBest) {
+		if (start == HexGrid.NO_CELL) {
+			throw new IllegalStateException("There is no search to go on with, call begin first");
+		}
+		if (finished) {
+			return true;
+		}
+		if (grid.getVersion() != version) {
+			throw new IllegalStateException("The grid was changed after the search began");
+		}
+
+		int done = 0;
+		while (done < maxExpansions) {
+			if (queue.isEmpty()) {
+				finished = true;
+				break;
+			}
+			if (hasDeadline && done % CLOCK_INTERVAL == 1 && System.nanoTime() - deadlineNanos >= 0) {
+				break;
+			}
+			int checkHex = dequeue();
+			if (context.isDequeued(checkHex)) {
+				// a cell that was given to the queue again comes out once more, after its cheaper entry
+				staleEntries--;
+				continue;
+			}
+			context.close(checkHex);
+			int checkSteps = context.getSteps(checkHex);
+			notify(checkHex, Hexagon.HexType.CURRENT);
+			expansions++;
+			done++;
+
+			if (checkHex == start) {
+				notify(checkHex, Hexagon.HexType.START_PROCESSED);
+			}
+
+			// the expanded cell closest to the end, and with the shortest path of those as close
+			if (trackBest) {
+				int distance = estimate(checkHex);
+				if (distance < bestDistance || distance == bestDistance && checkSteps < context.getSteps(bestCell)) {
+					bestCell = checkHex;
+					bestDistance = distance;
+				}
+			}
+
+			if (checkHex == end) {
+				notify(checkHex, Hexagon.HexType.END_PROCESSED);
+				bestCell = checkHex;
+				bestDistance = 0;
+				endFound = true;
+				finished = true;
+				break;
+			}
+
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(checkHex, side);
+				if (neighbour == HexGrid.NO_CELL || grid.isWall(neighbour))
+					continue;
+
+				int steps = checkSteps + grid.getCost(neighbour);
+				if (!context.isReached(neighbour)) {
+					// f(x)= g(x) + h(x), what the steps to the neighbour cost plus the predicted distance from the neighbour to the end
+					context.reach(neighbour, steps, checkHex);
+					enqueue(neighbour, steps + weight * estimate(neighbour));
+					notify(neighbour, Hexagon.HexType.ENQUEUED);
+					enqueues++;
+				}
+				else if (context.isEnqueued(neighbour) && steps < context.getSteps(neighbour)) {
+					// the neighbour is still waiting in the queue but a cheaper route to it was found
+					context.reach(neighbour, steps, checkHex);
+					if (indexedQueue != null) {
+						decreaseKey(neighbour, steps + weight * estimate(neighbour));
+					} else {
+						enqueue(neighbour, steps + weight * estimate(neighbour));
+						staleEntries++;
+					}
+					decreaseKeys++;
+				}
+			}
+			peakQueueSize = Math.max(peakQueueSize, queue.size() - staleEntries);
+
+			if (checkHex != start) {
+				notify(checkHex, Hexagon.HexType.DEQUEUED);
+			}
+		}
+		return finished;
+	}
+
+
+	//Returns the predicted distance from a cell to the end, from the heuristic if there is one, otherwise the cube distance between their axial coordinates, 0 if there is no end
+	private int estimate(int cell) {
+		if (estimator != null) {
+			return estimator.estimate(cell);
+		}
+		if (end == HexGrid.NO_CELL) {
+			return 0;
+		}
+		return HexGrid.cubeDistance(grid.getAxialQ(cell) - endQ, grid.getAxialR(cell) - endR);
+	}
+
+	// Helper methods for the queue, they go straight to the primitive methods of an IndexedIntPriorityQueue so the cells are not boxed
+
+	private void enqueue(int cell, double p) {
+		if (intQueue != null)
+			intQueue.enqueue(cell, p);
+		else
+			queue.enqueue(cell, p);
+	}
+
+	private int dequeue() {
+		if (intQueue != null)
+			return intQueue.dequeueInt();
+		return queue.dequeue();
+	}
+
+	private void clearQueue() {
+		if (intQueue != null)
+			intQueue.clear();
+		else
+			while (!queue.isEmpty())
+				queue.dequeue();
+	}
+
+	private void decreaseKey(int cell, double p) {
+		if (intQueue != null)
+			intQueue.decreaseKey(cell, p);
+		else
+			indexedQueue.decreaseKey(cell, p);
+	}
+
+
+	//Helper method to tell the listener about a change, if there is one
+	private void notify(int cell, Hexagon.HexType state) {
+		if (listener != null) {
+			listener.cellChanged(cell, state);
+		}
+	}
+
+}
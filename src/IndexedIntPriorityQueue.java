@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * - This class, IndexedIntPriorityQueue, is an indexed binary heap for the int cell numbers of a HexGrid
+ * - The elements have to be between 0 and the capacity given to the constructor, so the heap index of each element is kept in a plain int array
+ *   instead of a HashMap, and nothing is boxed when the primitive methods are used
+ * - It still implements IndexedPriorityQueueADT<Integer>, so it can be used anywhere the other queues are used
+ * - Elements with the same priority come out first in first out, the same as HeapPriorityQueue, both are built on a BinaryHeap
+ *
+ * @author Melissa Tran
+ */
+
+public class IndexedIntPriorityQueue extends BinaryHeap implements IndexedPriorityQueueADT<Integer> {
+	private static final int DEFAULT_CAPACITY = 64;
+	private static final int NOT_QUEUED = -1;
+
+	private int[] elements;
+	private int[] positions;	// positions[element] is the heap index of the element, or NOT_QUEUED
+
+
+	//@param capacity - elements must be from 0 up to (but not including) this number, for a HexGrid this is grid.size()
+	public IndexedIntPriorityQueue(int capacity) {
+		super(Math.max(1, Math.min(capacity, DEFAULT_CAPACITY)));
+		elements = new int[priorities.length];
+		positions = new int[capacity];
+		Arrays.fill(positions, NOT_QUEUED);
+	}
+
+
+	/**
+	 * This method adds the element into the queue based on priority, the smallest priority is dequeued first
+	 * @param: element - the element we want to add in
+	 * @param: p - the priority of the element
+	 * @exception: IllegalArgumentException - if the element is already in the queue, use decreaseKey instead
+	 */
+	public void enqueue(int element, double p) {
+		if (positions[element] != NOT_QUEUED) {
+			throw new IllegalArgumentException("The element is already in the priority queue");
+		}
+		int i = add(p);
+		elements[i] = element;
+		positions[element] = i;
+		siftUp(i);
+	}
+
+
+	//This method removes the element with the smallest priority, if there are no elements it will throw an EmptyCollectionException
+	public int dequeueInt() throws EmptyCollectionException {
+		if (size == 0) {
+			throw new EmptyCollectionException("priority queue");
+		}
+		int result = elements[0];
+		positions[result] = NOT_QUEUED;
+		removeFirst();
+		return result;
+	}
+
+
+	//This method will give us the first element in the queue without removing it
+	public int firstInt() {
+		if (size == 0)
+			throw new EmptyCollectionException("priority queue");
+		return elements[0];
+	}
+
+
+	/**
+	 * This method lowers the priority of an element that is already in the queue
+	 * The element is placed behind the other elements with the same priority, as if it had been dequeued and enqueued again
+	 * If the new priority is the same as the current one nothing changes
+	 * @param: element - the element to move forward in the queue
+	 * @param: newPriority - the new priority, it cannot be bigger than the current one
+	 * @exception: ElementNotFoundException - if the element is not in the queue
+	 * @exception: IllegalArgumentException - if the new priority is bigger than the current one
+	 */
+	public void decreaseKey(int element, double newPriority) {
+		int i = positions[element];
+		if (i == NOT_QUEUED) {
+			throw new ElementNotFoundException("priority queue");
+		}
+		if (newPriority > priorities[i]) {
+			throw new IllegalArgumentException("The new priority " + newPriority + " is bigger than the current priority " + priorities[i]);
+		}
+		if (newPriority == priorities[i]) {
+			return;
+		}
+		reprioritise(i, newPriority);
+		siftUp(i);
+	}
+
+
+	/**
+	 * This method changes the priority of an element that is already in the queue, up or down
+	 * The element is placed behind the other elements with the same priority, the same as decreaseKey
+	 * @param: element - the element to move
+	 * @param: newPriority - the new priority
+	 * @exception: ElementNotFoundException - if the element is not in the queue
+	 */
+	public void changeKey(int element, double newPriority) {
+		int i = positions[element];
+		if (i == NOT_QUEUED) {
+			throw new ElementNotFoundException("priority queue");
+		}
+		if (newPriority == priorities[i]) {
+			return;
+		}
+		reprioritise(i, newPriority);
+		siftUp(i);
+		siftDown(positions[element]);
+	}
+
+
+	/**
+	 * This method takes an element out of the queue wherever it is
+	 * @param: element - the element to remove
+	 * @exception: ElementNotFoundException - if the element is not in the queue
+	 */
+	public void remove(int element) {
+		int i = positions[element];
+		if (i == NOT_QUEUED) {
+			throw new ElementNotFoundException("priority queue");
+		}
+		positions[element] = NOT_QUEUED;
+		size--;
+		if (i < size) {
+			// the last entry fills the gap, and can belong above or below it
+			int moved = elements[size];
+			move(size, i);
+			siftUp(i);
+			siftDown(positions[moved]);
+		}
+	}
+
+
+	//This method gives the priority of the first element in the queue, or positive infinity if the queue is empty
+	public double firstPriority() {
+		return size == 0 ? Double.POSITIVE_INFINITY : priorities[0];
+	}
+
+
+	//This method checks if the element is currently in the queue
+	public boolean contains(int element) {
+		return positions[element] != NOT_QUEUED;
+	}
+
+
+	//This method removes every element, it only touches the elements that are still in the queue
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[elements[i]] = NOT_QUEUED;
+		}
+		size = 0;
+	}
+
+
+	// The methods of IndexedPriorityQueueADT<Integer>, they unbox the element and use the methods above
+
+	//This method adds an element with no priority, so it goes behind everything that is already in the queue
+	public void enqueue(Integer element) {
+		enqueue(element.intValue(), Double.POSITIVE_INFINITY);
+	}
+
+	public void enqueue(Integer element, double p) {
+		enqueue(element.intValue(), p);
+	}
+
+	public Integer dequeue() throws EmptyCollectionException {
+		return dequeueInt();
+	}
+
+	public Integer first() {
+		return firstInt();
+	}
+
+	public void decreaseKey(Integer element, double newPriority) {
+		decreaseKey(element.intValue(), newPriority);
+	}
+
+	public boolean contains(Integer element) {
+		return contains(element.intValue());
+	}
+
+	public String toString() {
+		return getClass().getName() + "[size=" + size + ",capacity=" + positions.length + "]";
+	}
+
+
+	//Updates the index stored for both elements as well
+	protected void swapElements(int a, int b) {
+		int e = elements[a];
+		elements[a] = elements[b];
+		elements[b] = e;
+		positions[elements[a]] = a;
+		positions[elements[b]] = b;
+	}
+
+	protected void moveElement(int from, int to) {
+		elements[to] = elements[from];
+		positions[elements[to]] = to;
+	}
+
+	//The positions array never grows
+	protected void growElements(int capacity) {
+		elements = Arrays.copyOf(elements, capacity);
+	}
+
+}
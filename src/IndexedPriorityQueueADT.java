@@ -0,0 +1,16 @@
+/**
+ * - IndexedPriorityQueueADT extends the PriorityQueueADT with the operations that need to find an element already in the queue
+ * - Implementations keep track of where each element is stored, so both operations avoid a search through the queue
+ *
+ * @author Melissa Tran
+ */
+
+public interface IndexedPriorityQueueADT<T> extends PriorityQueueADT<T>
+{
+
+   //Lowers the priority of an element that is already in the queue, so it is dequeued sooner
+   public void decreaseKey (T element, double newPriority);
+
+   //Checks if the element is currently in the queue
+   public boolean contains (T element);
+}
@@ -0,0 +1,382 @@
+/**
+ * - JumpPointSolver finds the same shortest paths as AStarSolver, but only puts the cells where a path may have to turn (jump points) in the queue,
+ *   the straight runs between them are walked over without being enqueued
+ * - Every step costs 1, so between two cells there are usually many paths of the same length, made of the same steps in a different order
+ *   The search only follows one of them: the sides 0, 2 and 4 are taken first and the sides 1, 3 and 5 after them
+ *   (every even side is two odd sides added together, side 0 + side 2 = side 1, like a diagonal on a square grid)
+ * - The rules are the hexagon version of jump point search on a square grid with diagonals
+ *   A step on an even side k can carry on along k, or turn to k-1 or k+1, its other neighbours are closer to the cell it came from
+ *   A step on an odd side e can only carry on along e, unless a wall next to it blocks the even-first way around,
+ *   then it can also turn to e+1 (if the cell on side e+2 is a wall) or e-1 (if the cell on side e-2 is a wall), these are forced neighbours
+ * - An odd run stops at the end or at a cell with a forced neighbour, these cells are the jump points
+ * - An even run is never stopped: it is walked until a wall, and the jump points of the two odd runs from every cell along it are enqueued
+ *   straight away, so the cells of an even run are not enqueued and their odd runs are not scanned a second time when they are expanded
+ *   (with a few walls scattered around nearly every cell of an even run has an odd run that stops somewhere)
+ * - How far every odd run goes from every cell is worked out once for each version of the grid (an int per cell and odd side),
+ *   so an odd run is one look up, the first search after the grid changes pays for working the table out again
+ * - The path between a jump point and its parent is then an even run followed by an odd run, it is worked out again from the two cells
+ * - The heuristic is the same cube distance as AStarSolver, so the paths have the same length as the ones AStarSolver finds
+ * - The parent of a jump point is the jump point before it, the cells in between are filled in when the path is made
+ * - The runs are walked by row and column, so the neighbours of a cell are found without dividing its number by the number of columns
+ * - The context and queue are reused by every call to solve, the same as AStarSolver
+ *
+ * @author Melissa Tran
+ */
+
+public class JumpPointSolver implements PathFinder {
+
+	// Attributes
+	private final HexGrid grid;
+	private final int rows;
+	private final int cols;
+	private final IndexedIntPriorityQueue queue;
+	private final SearchContext context;
+	private SearchListener listener;
+	private int end;
+	private int endQ;
+	private int endR;
+
+	// The odd runs from every cell, see buildRuns, made when first needed
+	private int[] runs;	// for each odd side and cell, the steps to the next cell with a forced neighbour, or minus the open cells before a wall if there is none
+	private int runsVersion;	// the version of the grid the runs were worked out for
+
+	// The statistics of the search that is going on
+	private int enqueues;
+	private int decreaseKeys;
+
+
+	//@param grid - the maze to search
+	public JumpPointSolver(HexGrid grid) {
+		this.grid = grid;
+		this.rows = grid.getRows();
+		this.cols = grid.getCols();
+		this.queue = new IndexedIntPriorityQueue(grid.size());
+		this.context = new SearchContext(grid.size());
+	}
+
+
+	//Sets the listener that is told about every change to a cell, null for no listener
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+
+	//Searches from the start tile of the grid to the end tile of the grid
+	public SearchResult solve() {
+		return solve(grid.getStart(), grid.getEnd());
+	}
+
+
+	/**
+	 * Searches for the shortest path between two cells, enqueuing only the jump points
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the statistics of the search (only jump points are counted) and the path to the end, the end is not found if the start or end is a wall
+	 * @exception: IllegalArgumentException - if there is no start or no end cell, or the grid has terrain costs
+	 */
+	public SearchResult solve(int start, int end) {
+		if (start == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("The maze has no start");
+		}
+		if (end == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("A jump point search needs an end");
+		}
+		if (grid.hasCosts()) {
+			throw new IllegalArgumentException("A jump point search needs a maze where every step costs 1");
+		}
+		if (grid.isWall(start) || grid.isWall(end)) {
+			return SearchResult.notFound();
+		}
+		this.end = end;
+		this.endQ = grid.getAxialQ(end);
+		this.endR = grid.getAxialR(end);
+
+		int expansions = 0;
+		int peakQueueSize = 1;
+		enqueues = 0;
+		decreaseKeys = 0;
+		boolean isThereEnd = false;
+
+		context.reset();
+		queue.clear();
+		if (runs == null || runsVersion != grid.getVersion()) {
+			buildRuns();
+		}
+		notify(start, Hexagon.HexType.START_PROCESSED);
+		context.reach(start, 0, HexGrid.NO_CELL);
+		queue.enqueue(start, distanceToEnd(start));
+
+		while (!queue.isEmpty()) {
+			int checkHex = queue.dequeueInt();
+			context.close(checkHex);
+			int checkSteps = context.getSteps(checkHex);
+			notify(checkHex, Hexagon.HexType.CURRENT);
+			expansions++;
+
+			if (checkHex == end) {
+				notify(checkHex, Hexagon.HexType.END_PROCESSED);
+				isThereEnd = true;
+				break;
+			}
+
+			// the start looks every way, every other jump point only where its rules allow
+			int parent = context.getParent(checkHex);
+			int row = checkHex / cols;
+			int col = checkHex - row * cols;
+			int sides = parent == HexGrid.NO_CELL ? 0x3F : prunedSides(row, col, arrivalSide(parent, checkHex));
+			for (int side = 0; side <= 5; side++) {
+				if ((sides & (1 << side)) == 0)
+					continue;
+				if (side % 2 == 1)
+					reachOdd(checkHex, checkSteps, row, col, side);
+				else
+					runEven(checkHex, checkSteps, row, col, side);
+			}
+			peakQueueSize = Math.max(peakQueueSize, queue.size());
+
+			notify(checkHex, checkHex == start ? Hexagon.HexType.START_PROCESSED : Hexagon.HexType.DEQUEUED);
+		}
+
+		return new SearchResult(isThereEnd, isThereEnd ? context.getSteps(end) : -1, queue.size(),
+				expansions, enqueues, decreaseKeys, peakQueueSize, isThereEnd ? makePath(end) : null);
+	}
+
+
+	/**
+	 * Enqueues a jump point found from a cell, or moves it forward if it was already enqueued from somewhere further away
+	 * @param: from - the jump point being expanded
+	 * @param: steps - the number of steps to the jump point through it
+	 * @param: jumpPoint - the jump point found
+	 */
+	private void reach(int from, int steps, int jumpPoint) {
+		if (!context.isReached(jumpPoint)) {
+			context.reach(jumpPoint, steps, from);
+			queue.enqueue(jumpPoint, steps + distanceToEnd(jumpPoint));
+			notify(jumpPoint, Hexagon.HexType.ENQUEUED);
+			enqueues++;
+		}
+		else if (context.isEnqueued(jumpPoint) && steps < context.getSteps(jumpPoint)) {
+			context.reach(jumpPoint, steps, from);
+			queue.decreaseKey(jumpPoint, steps + distanceToEnd(jumpPoint));
+			decreaseKeys++;
+		}
+	}
+
+
+	/**
+	 * Returns the sides a jump point reached on a side should look along, as a bit for each side
+	 * @param: row - the row of the jump point
+	 * @param: col - the column of the jump point
+	 * @param: d - the side of the last step to it
+	 */
+	private int prunedSides(int row, int col, int d) {
+		int sides = 1 << d;
+		if (d % 2 == 0) {
+			// an even step can turn to either of its odd sides
+			sides |= 1 << (d + 5) % 6 | 1 << (d + 1) % 6;
+		} else {
+			sides |= forcedSides(row, col, d);
+		}
+		return sides;
+	}
+
+
+	//Returns the forced neighbours of the cell at a row and column reached on an odd side, as a bit for each side
+	private int forcedSides(int row, int col, int e) {
+		int sides = 0;
+		if (!isOpen(grid.getNeighbour(row, col, (e + 2) % 6)) && isOpen(grid.getNeighbour(row, col, (e + 1) % 6)))
+			sides |= 1 << (e + 1) % 6;
+		if (!isOpen(grid.getNeighbour(row, col, (e + 4) % 6)) && isOpen(grid.getNeighbour(row, col, (e + 5) % 6)))
+			sides |= 1 << (e + 5) % 6;
+		return sides;
+	}
+
+
+	//Reaches the jump point of the odd run from the cell at a row and column, if it has one
+	private void reachOdd(int from, int steps, int row, int col, int e) {
+		int distance = jumpOdd(row, col, e);
+		if (distance != 0)
+			reach(from, steps + distance, cellAlong(row, col, e, distance));
+	}
+
+
+	/**
+	 * Returns the steps from the cell at a row and column along an odd side to the next jump point, the end or a cell with a forced neighbour
+	 * The run is read from the table made by buildRuns, so no cell is walked over
+	 * @param: row - the row of the cell
+	 * @param: col - the column of the cell
+	 * @param: e - the odd side
+	 * @return: the number of steps, or 0 if there is no jump point before a wall or the edge of the maze
+	 */
+	private int jumpOdd(int row, int col, int e) {
+		int run = runs[(e / 2) * grid.size() + row * cols + col];
+		// the end is on the run if it is straight along side e from the cell, and no further than where the run stops
+		int dq = endQ - (col - row / 2);
+		int dr = endR - row;
+		int toEnd = e == 1 ? (dr == 0 ? dq : 0) : e == 3 ? (dq == -dr ? dr : 0) : (dq == 0 ? -dr : 0);
+		if (toEnd > 0 && toEnd <= Math.abs(run))
+			return toEnd;
+		return Math.max(run, 0);
+	}
+
+
+	/**
+	 * Works out the odd runs from every cell for the version of the grid, one pass over the grid for each odd side
+	 * The cells are gone through so that the next cell along the side is always done first, the run from a cell is then the run from the next cell and one more step,
+	 * 1 step if the next cell has a forced neighbour, or nothing if the next cell is a wall
+	 */
+	private void buildRuns() {
+		int size = grid.size();
+		if (runs == null)
+			runs = new int[3 * size];
+		for (int e = 1; e <= 5; e += 2) {
+			int base = (e / 2) * size;
+			int rowStep = HexGrid.rowStep(e);
+			for (int i = 0; i < rows; i++) {
+				// side 5 goes up a row so the top row is done first, side 3 goes down a row and side 1 stays in the row
+				int row = e == 5 ? i : rows - 1 - i;
+				for (int j = 0; j < cols; j++) {
+					int col = e == 1 ? cols - 1 - j : j;
+					int nextRow = row + rowStep;
+					int nextCol = col + HexGrid.colStep(row, e);
+					int run;
+					if (nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= cols || grid.isWall(nextRow * cols + nextCol)) {
+						run = 0;
+					} else if (forcedSides(nextRow, nextCol, e) != 0) {
+						run = 1;
+					} else {
+						int next = runs[base + nextRow * cols + nextCol];
+						run = next > 0 ? next + 1 : next - 1;
+					}
+					runs[base + row * cols + col] = run;
+				}
+			}
+		}
+		runsVersion = grid.getVersion();
+	}
+
+
+	//Returns the cell a number of steps from the cell at a row and column along a side, the columns of the even and odd rows move differently
+	private int cellAlong(int row, int col, int side, int steps) {
+		int fromEven = HexGrid.rowStep(side) == 0 ? (row % 2 == 0 ? steps : 0) : (steps + 1 - row % 2) / 2;
+		int r = row + HexGrid.rowStep(side) * steps;
+		int c = col + fromEven * HexGrid.colStep(0, side) + (steps - fromEven) * HexGrid.colStep(1, side);
+		return r * cols + c;
+	}
+
+
+	/**
+	 * Walks from a jump point along an even side until a wall or the edge of the maze, and reaches the jump points of the odd runs
+	 * that turn off every cell along the way, and the end if it is on the run
+	 * @param: from - the jump point being expanded
+	 * @param: steps - the number of steps to it
+	 * @param: row - the row of the jump point
+	 * @param: col - the column of the jump point
+	 * @param: k - the even side to walk along
+	 */
+	private void runEven(int from, int steps, int row, int col, int k) {
+		int rowStep = HexGrid.rowStep(k);
+		while (true) {
+			col += HexGrid.colStep(row, k);
+			row += rowStep;
+			if (row < 0 || row >= rows || col < 0 || col >= cols)
+				return;
+			int cell = row * cols + col;
+			if (grid.isWall(cell))
+				return;
+			steps++;
+			if (cell == end) {
+				reach(from, steps, cell);
+				return;
+			}
+			reachOdd(from, steps, row, col, (k + 5) % 6);
+			reachOdd(from, steps, row, col, (k + 1) % 6);
+		}
+	}
+
+
+	/**
+	 * Returns the side of the last step from a jump point's parent to it, the path between them is an even run and then an odd run
+	 * In cube coordinates (q, r and s = -q - r) a path that ends with odd steps along side 1 is the only kind that makes q bigger and s smaller,
+	 * along side 3 r bigger and q smaller, and along side 5 s bigger and r smaller, any other path is one straight run
+	 */
+	private int arrivalSide(int parent, int cell) {
+		int dq = grid.getAxialQ(cell) - grid.getAxialQ(parent);
+		int dr = grid.getAxialR(cell) - grid.getAxialR(parent);
+		int ds = -dq - dr;
+		if (dq > 0 && ds < 0)
+			return 1;
+		if (dr > 0 && dq < 0)
+			return 3;
+		if (ds > 0 && dr < 0)
+			return 5;
+		return directionOf(parent, cell);
+	}
+
+
+	//Checks if two cells are on one straight line of hexagons
+	private boolean inLine(int a, int b) {
+		int dq = grid.getAxialQ(b) - grid.getAxialQ(a);
+		int dr = grid.getAxialR(b) - grid.getAxialR(a);
+		return dq == 0 || dr == 0 || dq == -dr;
+	}
+
+
+	//Returns the side of the steps from one cell to another, the two must be on one straight line
+	private int directionOf(int parent, int cell) {
+		int dq = Integer.signum(grid.getAxialQ(cell) - grid.getAxialQ(parent));
+		int dr = Integer.signum(grid.getAxialR(cell) - grid.getAxialR(parent));
+		if (dr < 0)
+			return dq > 0 ? 0 : 5;
+		if (dr > 0)
+			return dq < 0 ? 3 : 2;
+		return dq > 0 ? 1 : 4;
+	}
+
+
+	//Follows the jump points back to the start and fills in the cells between them
+	private HexPath makePath(int to) {
+		int[] cells = new int[context.getSteps(to) + 1];
+		int i = cells.length - 1;
+		int cell = to;
+		cells[i] = cell;
+		while (context.getParent(cell) != HexGrid.NO_CELL) {
+			int parent = context.getParent(cell);
+			// back along the odd run until the cell is in line with the parent, then back along the even run
+			int walk = cell;
+			int back = (arrivalSide(parent, cell) + 3) % 6;
+			while (!inLine(parent, walk)) {
+				walk = grid.getNeighbour(walk, back);
+				cells[--i] = walk;
+			}
+			back = (directionOf(parent, walk) + 3) % 6;
+			while (walk != parent) {
+				walk = grid.getNeighbour(walk, back);
+				cells[--i] = walk;
+			}
+			cell = parent;
+		}
+		return HexPath.fromCells(grid, cells);
+	}
+
+
+	//Checks if a cell exists and is not a wall
+	private boolean isOpen(int cell) {
+		return cell != HexGrid.NO_CELL && !grid.isWall(cell);
+	}
+
+
+	//Returns the predicted distance from a cell to the end, the cube distance between their axial coordinates
+	private int distanceToEnd(int cell) {
+		return HexGrid.cubeDistance(grid.getAxialQ(cell) - endQ, grid.getAxialR(cell) - endR);
+	}
+
+
+	//Helper method to tell the listener about a change, if there is one
+	private void notify(int cell, Hexagon.HexType state) {
+		if (listener != null) {
+			listener.cellChanged(cell, state);
+		}
+	}
+
+}
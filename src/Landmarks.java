@@ -0,0 +1,461 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * - Landmarks is a table of the exact distances from a few landmark cells to every cell of a HexGrid, used to give A* a much better
+ *   heuristic than the cube distance on mazes where the walls make the real paths a lot longer than the straight line (ALT: A*, landmarks, triangle inequality)
+ * - For a landmark L, d(L, end) <= d(L, cell) + d(cell, end), so |d(L, end) - d(L, cell)| is never more than the distance from the cell to the end,
+ *   the heuristic is the largest of these over every landmark (and the cube distance), and it still never says more than the real distance
+ * - The landmarks are picked farthest point first: the first is the cell farthest from the start, every next one is the cell farthest
+ *   from all of the landmarks picked so far, so they end up around the edges of the maze, behind the cells that searches go between
+ *   If the start is walled into a small part of the maze, they are picked in the biggest part that hangs together instead
+ * - The distances are worked out with one breadth first search per landmark, they count the steps and not the terrain costs,
+ *   every step costs at least 1 so they are lower bounds on a grid with costs too
+ * - The table has one entry per landmark per cell, all of the landmarks of a cell next to each other so one estimate reads one or two cache lines,
+ *   as chars (2 bytes) when every distance fits, otherwise as ints, so 8 landmarks take 16 or 32 bytes per cell
+ * - A cell that cannot be reached from the landmarks (walled into a part of its own) does not get a better estimate than the cube distance
+ * - A table can be saved and loaded again, so it is only worked out once for a maze, the file has a 32 byte header followed by the table,
+ *   all numbers are big-endian
+ *   bytes 0-3: the magic number "HEXL"
+ *   bytes 4-5: the version of the format, 1
+ *   bytes 6-7: the bytes per distance, 2 or 4
+ *   bytes 8-19: the rows, the cols and the number of landmarks
+ *   bytes 20-23: the CRC32 checksum of the tiles of the maze (see BinaryMazeFormat), so a table is never loaded for a different maze
+ *   bytes 24-31: 0, saved for later
+ *   then the cell of every landmark as an int, and the distances, cell by cell and landmark by landmark
+ * - Turning a cell into a wall or an open tile changes the distances, so a table is only used while the version of the grid is the one it
+ *   was made or loaded for, newHeuristic and setEnd throw an IllegalStateException after that
+ * - A table is never changed once it is made, so it can be shared by any number of solvers and threads
+ *
+ * @author Melissa Tran
+ */
+
+public class Landmarks {
+
+	public static final int MAGIC = 0x4845584C;	// "HEXL"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 32;
+
+	// The number of landmarks picked when no number is given
+	public static final int DEFAULT_COUNT = 8;
+
+	// The distance of a cell that cannot be reached from a landmark, in each kind of table
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+	private static final char NARROW_UNREACHABLE = Character.MAX_VALUE;
+
+	// The number of bytes written at a time while saving
+	private static final int CHUNK = 1 << 16;
+
+	// Attributes
+	private final HexGrid grid;
+	private final int[] landmarks;
+	private final int count;
+	private final char[] narrow;	// distances[cell * count + k], when every distance fits in a char, otherwise null
+	private final int[] wide;	// the same when they do not fit, otherwise null
+	private final int version;	// the version of the grid the table is for
+
+
+	//Picks DEFAULT_COUNT landmarks
+	public Landmarks(HexGrid grid) {
+		this(grid, DEFAULT_COUNT);
+	}
+
+
+	/**
+	 * Picks the landmarks and works out the distances from each of them to every cell, which takes one breadth first search per landmark
+	 * If the part of the maze the landmarks are picked in has fewer open cells than the number asked for, every one of them is a landmark
+	 * @param: grid - the maze to make the table for
+	 * @param: count - the number of landmarks to pick, more give better estimates but each one adds 2 or 4 bytes per cell
+	 * @exception: IllegalArgumentException - if the count is less than 1, or the grid has no open cell to start from
+	 */
+	public Landmarks(HexGrid grid, int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("There must be at least one landmark");
+		}
+		if ((long) grid.size() * count > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("A table of " + count + " landmarks is too big for a maze of " + grid.size() + " cells");
+		}
+		this.grid = grid;
+		this.version = grid.getVersion();
+		int size = grid.size();
+		int[] distance = new int[size];
+		int[] fifo = new int[size];
+		int[] nearest = new int[size];	// the distance from each cell to the closest landmark picked so far
+
+		// the first landmark is the cell farthest from the start, or from a cell of the biggest part of the maze if the start is not in it
+		int seed = biggestPart(distance, fifo);
+		if (seed == HexGrid.NO_CELL) {
+			throw new IllegalArgumentException("A maze with no open cells has no landmarks");
+		}
+		// the cells come out of a breadth first search in order of distance, so the last one is the farthest
+		int first = fifo[breadthFirst(seed, distance, fifo) - 1];
+
+		// every distance is at most twice the distance to the farthest cell from the first landmark (through the first landmark)
+		int reached = breadthFirst(first, distance, fifo);
+		count = Math.min(count, reached);
+		int longest = distance[fifo[reached - 1]];
+		boolean fits = 2L * longest < NARROW_UNREACHABLE;
+		this.count = count;
+		this.landmarks = new int[count];
+		this.narrow = fits ? new char[size * count] : null;
+		this.wide = fits ? null : new int[size * count];
+		Arrays.fill(nearest, UNREACHABLE);
+
+		int landmark = first;
+		for (int k = 0; k < count; k++) {
+			if (k > 0) {
+				breadthFirst(landmark, distance, fifo);
+			}
+			landmarks[k] = landmark;
+			nearest[landmark] = 0;
+			int next = landmark;
+			for (int cell = 0; cell < size; cell++) {
+				int d = distance[cell];
+				set(cell, k, d);
+				if (d != UNREACHABLE) {
+					nearest[cell] = Math.min(nearest[cell], d);
+					if (nearest[cell] > nearest[next])
+						next = cell;
+				}
+			}
+			landmark = next;
+		}
+	}
+
+
+	//Makes a table from the landmarks and distances read from a file
+	private Landmarks(HexGrid grid, int[] landmarks, char[] narrow, int[] wide) {
+		this.grid = grid;
+		this.version = grid.getVersion();
+		this.landmarks = landmarks;
+		this.count = landmarks.length;
+		this.narrow = narrow;
+		this.wide = wide;
+	}
+
+
+	//Returns the grid the table is for
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+
+	//Returns the number of landmarks
+	public int getCount() {
+		return count;
+	}
+
+
+	//Returns the cell of a landmark
+	public int getLandmark(int k) {
+		return landmarks[k];
+	}
+
+
+	//Returns the number of steps from a landmark to a cell, or -1 if the cell cannot be reached from it
+	public int getDistance(int k, int cell) {
+		int d = get(cell, k);
+		return d == UNREACHABLE ? -1 : d;
+	}
+
+
+	//Returns true if the grid has not been changed since the table was made or loaded
+	public boolean isCurrent() {
+		return grid.getVersion() == version;
+	}
+
+
+	/**
+	 * Makes a heuristic for one solver that reads this table, see AStarSolver.setHeuristic
+	 * @exception: IllegalStateException - if the grid has been changed since the table was made
+	 */
+	public Heuristic newHeuristic() {
+		checkCurrent();
+		return new LandmarkHeuristic();
+	}
+
+
+	/**
+	 * Works out the same estimate as the heuristics of this table, for one pair of cells
+	 * @param: cell - the cell to estimate from
+	 * @param: end - the cell to estimate to
+	 * @return: a lower bound on the number of steps between the two cells
+	 */
+	public int estimate(int cell, int end) {
+		int best = grid.distanceBetween(cell, end);
+		for (int k = 0; k < count; k++) {
+			int from = get(cell, k);
+			int to = get(end, k);
+			if (from != UNREACHABLE && to != UNREACHABLE)
+				best = Math.max(best, Math.abs(from - to));
+		}
+		return best;
+	}
+
+
+	/**
+	 * Saves the table to a file
+	 * @param: outFile - the file to write
+	 * @throws IOException - if the file could not be written
+	 */
+	public void save(String outFile) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile), CHUNK);
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+
+	/**
+	 * Writes the table to a stream, the stream is not closed
+	 * @param: out - where to write it
+	 * @throws IOException - if the table could not be written
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeShort(narrow != null ? 2 : 4);
+		data.writeInt(grid.getRows());
+		data.writeInt(grid.getCols());
+		data.writeInt(count);
+		data.writeInt(BinaryMazeFormat.checksum(grid));
+		data.writeLong(0);
+		for (int k = 0; k < count; k++) {
+			data.writeInt(landmarks[k]);
+		}
+
+		// the distances are put in a buffer a chunk at a time, writing them one at a time through the DataOutputStream is a lot slower
+		ByteBuffer chunk = ByteBuffer.allocate(CHUNK);
+		int length = narrow != null ? narrow.length : wide.length;
+		for (int i = 0; i < length; i++) {
+			if (chunk.remaining() < 4) {
+				data.write(chunk.array(), 0, chunk.position());
+				chunk.clear();
+			}
+			if (narrow != null)
+				chunk.putChar(narrow[i]);
+			else
+				chunk.putInt(wide[i]);
+		}
+		data.write(chunk.array(), 0, chunk.position());
+		data.flush();
+	}
+
+
+	/**
+	 * Loads a table that was saved for a grid
+	 * @param: inFile - the file the table was saved to
+	 * @param: grid - the maze the table is for, it must have the same size and tiles as the maze the table was made for
+	 * @return: the table in the file
+	 * @throws FileNotFoundException - if the file does not exist
+	 * @throws IOException - if the file is not a landmark table, is cut short or was made for a different maze
+	 */
+	public static Landmarks load(String inFile, HexGrid grid) throws FileNotFoundException, IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(Paths.get(inFile), StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(inFile + " (No such file or directory)");
+		}
+		try {
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException("The file is too short to be a landmark table");
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(0) != MAGIC) {
+				throw new IOException("The file is not a landmark table");
+			}
+			if (header.getShort(4) != VERSION) {
+				throw new IOException("Version " + header.getShort(4) + " of the landmark table format is not supported");
+			}
+			int width = header.getShort(6);
+			int count = header.getInt(16);
+			if (header.getInt(8) != grid.getRows() || header.getInt(12) != grid.getCols() || header.getInt(20) != BinaryMazeFormat.checksum(grid)) {
+				throw new IOException("The landmark table was made for a different maze");
+			}
+			long cells = (long) grid.size() * count;
+			if ((width != 2 && width != 4) || count < 1 || cells > Integer.MAX_VALUE || (long) count * 4 + cells * width > Integer.MAX_VALUE) {
+				throw new IOException("The landmark table has a bad header");
+			}
+			long bytes = count * 4L + cells * width;
+			if (channel.size() < HEADER_SIZE + bytes) {
+				throw new IOException("The file has " + (channel.size() - HEADER_SIZE) + " bytes of landmarks, " + bytes + " are needed");
+			}
+
+			ByteBuffer body = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bytes);
+			int[] landmarks = new int[count];
+			body.asIntBuffer().get(landmarks);
+			for (int k = 0; k < count; k++) {
+				if (landmarks[k] < 0 || landmarks[k] >= grid.size()) {
+					throw new IOException("A landmark is outside of the maze");
+				}
+			}
+			body.position(count * 4);
+			if (width == 2) {
+				char[] narrow = new char[(int) cells];
+				body.slice().asCharBuffer().get(narrow);
+				return new Landmarks(grid, landmarks, narrow, null);
+			}
+			int[] wide = new int[(int) cells];
+			body.slice().asIntBuffer().get(wide);
+			return new Landmarks(grid, landmarks, null, wide);
+		} finally {
+			channel.close();
+		}
+	}
+
+
+	/**
+	 * Loads the table saved in a file if it is there and was made for the grid with the same number of landmarks,
+	 * otherwise makes a new table and saves it to the file for next time
+	 * @param: file - where the table is kept
+	 * @param: grid - the maze the table is for
+	 * @param: count - the number of landmarks
+	 * @return: the loaded or new table
+	 * @throws IOException - if a new table could not be saved
+	 */
+	public static Landmarks loadOrBuild(String file, HexGrid grid, int count) throws IOException {
+		try {
+			Landmarks saved = load(file, grid);
+			if (saved.getCount() == count) {
+				return saved;
+			}
+		} catch (IOException e) {
+			// there is no table for this maze yet, or it is out of date
+		}
+		Landmarks landmarks = new Landmarks(grid, count);
+		landmarks.save(file);
+		return landmarks;
+	}
+
+
+	public String toString() {
+		return getClass().getName() + "[landmarks=" + count + ",bytesPerCell=" + count * (narrow != null ? 2 : 4) + "]";
+	}
+
+
+	/**
+	 * Finds the biggest part of the maze whose open cells are all connected to each other, by flooding every part once
+	 * @return: the start if it is in that part, otherwise a cell of it, or HexGrid.NO_CELL if the maze has no open cells
+	 */
+	private int biggestPart(int[] distance, int[] fifo) {
+		Arrays.fill(distance, UNREACHABLE);
+		int start = grid.getStart();
+		int best = HexGrid.NO_CELL;
+		int bestSize = 0;
+		if (start != HexGrid.NO_CELL && !grid.isWall(start)) {
+			best = start;
+			bestSize = flood(start, distance, fifo);
+		}
+		for (int cell = 0; cell < distance.length; cell++) {
+			if (distance[cell] == UNREACHABLE && !grid.isWall(cell)) {
+				int size = flood(cell, distance, fifo);
+				if (size > bestSize) {
+					best = cell;
+					bestSize = size;
+				}
+			}
+		}
+		return best;
+	}
+
+
+	//Fills the distance array from one cell with a breadth first search, returns the number of cells reached (they are in the fifo in order of distance)
+	private int breadthFirst(int from, int[] distance, int[] fifo) {
+		Arrays.fill(distance, UNREACHABLE);
+		return flood(from, distance, fifo);
+	}
+
+
+	//The breadth first search of breadthFirst, only the cells that are still UNREACHABLE in the distance array are reached
+	private int flood(int from, int[] distance, int[] fifo) {
+		int cols = grid.getCols();
+		int head = 0;
+		int tail = 0;
+		distance[from] = 0;
+		fifo[tail++] = from;
+		while (head < tail) {
+			int cell = fifo[head++];
+			int r = cell / cols;
+			int c = cell - r * cols;
+			int next = distance[cell] + 1;
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(r, c, side);
+				if (neighbour == HexGrid.NO_CELL)
+					continue;
+				if (distance[neighbour] == UNREACHABLE && !grid.isWall(neighbour)) {
+					distance[neighbour] = next;
+					fifo[tail++] = neighbour;
+				}
+			}
+		}
+		return tail;
+	}
+
+
+	private int get(int cell, int k) {
+		if (narrow != null) {
+			char d = narrow[cell * count + k];
+			return d == NARROW_UNREACHABLE ? UNREACHABLE : d;
+		}
+		return wide[cell * count + k];
+	}
+
+
+	private void set(int cell, int k, int d) {
+		if (narrow != null)
+			narrow[cell * count + k] = d == UNREACHABLE ? NARROW_UNREACHABLE : (char) d;
+		else
+			wide[cell * count + k] = d;
+	}
+
+
+	private void checkCurrent() {
+		if (!isCurrent()) {
+			throw new IllegalStateException("The grid was changed after the landmark table was made");
+		}
+	}
+
+
+	// The heuristic of one solver, it keeps the distances from the landmarks to the end of its search
+	private class LandmarkHeuristic implements Heuristic {
+		private final int[] toEnd = new int[count];
+		private int endQ;
+		private int endR;
+
+		public void setEnd(int end) {
+			checkCurrent();
+			for (int k = 0; k < count; k++) {
+				toEnd[k] = get(end, k);
+			}
+			endQ = grid.getAxialQ(end);
+			endR = grid.getAxialR(end);
+		}
+
+		public int estimate(int cell) {
+			int best = HexGrid.cubeDistance(grid.getAxialQ(cell) - endQ, grid.getAxialR(cell) - endR);
+			int base = cell * count;
+			for (int k = 0; k < count; k++) {
+				int to = toEnd[k];
+				int from = narrow != null ? (narrow[base + k] == NARROW_UNREACHABLE ? UNREACHABLE : narrow[base + k]) : wide[base + k];
+				if (from != UNREACHABLE && to != UNREACHABLE)
+					best = Math.max(best, Math.abs(from - to));
+			}
+			return best;
+		}
+	}
+
+}
@@ -0,0 +1,375 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * - MappedMazeLoader reads a maze file into a HexGrid much faster than the HexGrid(String) constructor, for files with millions of tiles
+ * - The file is memory mapped and its bytes are scanned straight into the byte array of the grid, no String or other object is made for a line or a tile
+ * - A big file is split into ranges of whole lines that are read at the same time on several threads
+ *   First every range counts its line breaks, so it knows which row it starts on, then every range reads its tiles
+ * - The format is the same as the HexGrid(String) constructor reads: the rows and cols on the first line, then one line per row with
+ *   the tiles separated by spaces, only the first character of each tile counts and anything after the last row is ignored
+ * - Lines can end with "\n" or "\r\n"
+ * - A digit 1-9 is an open tile with a cost (see HexGrid), the cost layer is only made once a range finds a digit above 1, by whichever range finds one first
+ * - A character that is not W, S, E, U or a digit 1-9 throws an UnknownMazeCharacterException, for the first such tile in the file, the same as HexGrid(String)
+ * - If there is more than one start or end the last one in the file is used, also the same as HexGrid(String)
+ * - A binary maze file (see BinaryMazeFormat) is recognised by its magic number and mapped in place instead
+ *
+ * @author Melissa Tran
+ */
+
+public class MappedMazeLoader {
+
+	// Files smaller than this are read on the calling thread in one range
+	private static final long PARALLEL_THRESHOLD = 1 << 20;
+
+	// The largest range that is mapped at once, a mapped buffer cannot be bigger than 2GB
+	private static final long MAX_RANGE = 1 << 30;
+
+	// Attributes
+	private final int threads;
+
+
+	//Creates a loader that reads big files on one thread per processor
+	public MappedMazeLoader() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+
+	//@param threads - the number of threads a big file is read on
+	public MappedMazeLoader(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("A loader needs at least one thread");
+		}
+		this.threads = threads;
+	}
+
+
+	/**
+	 * Reads a maze file with one thread per processor
+	 * @param: inFile - the maze file
+	 * @return: the grid in the file
+	 * @throws UnknownMazeCharacterException - if a tile is not W, S, E, U or a digit 1-9
+	 * @throws FileNotFoundException - if the file does not exist
+	 * @throws IOException - if the file could not be read or is missing rows or tiles
+	 */
+	public static HexGrid load(String inFile) throws UnknownMazeCharacterException, FileNotFoundException, IOException {
+		return new MappedMazeLoader().read(inFile);
+	}
+
+
+	/**
+	 * Reads a maze file
+	 * @param: inFile - the maze file
+	 * @return: the grid in the file
+	 * @throws UnknownMazeCharacterException - if a tile is not W, S, E, U or a digit 1-9
+	 * @throws FileNotFoundException - if the file does not exist
+	 * @throws IOException - if the file could not be read or is missing rows or tiles
+	 */
+	public HexGrid read(String inFile) throws UnknownMazeCharacterException, FileNotFoundException, IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(Paths.get(inFile), StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(inFile + " (No such file or directory)");
+		}
+		try {
+			if (BinaryMazeFormat.isBinary(channel)) {
+				return BinaryMazeFormat.read(channel, true);
+			}
+			return read(channel);
+		} finally {
+			channel.close();
+		}
+	}
+
+
+	//Reads the header, splits the rest of the file into ranges of lines and reads them
+	private HexGrid read(FileChannel channel) throws IOException {
+		long fileSize = channel.size();
+
+		// the first line has the number of rows and cols
+		MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, 256));
+		int[] header = new int[2];
+		int headerEnd = readHeader(head, header);
+		int rows = header[0];
+		int cols = header[1];
+		if ((long) rows * cols > Integer.MAX_VALUE) {
+			throw new IOException("A " + rows + "x" + cols + " maze has too many tiles");
+		}
+		byte[] types = new byte[rows * cols];
+		AtomicReference<byte[]> costs = new AtomicReference<byte[]>();
+
+		long dataSize = fileSize - headerEnd;
+		int splits = dataSize < PARALLEL_THRESHOLD ? 1 : (int) Math.max(threads, (dataSize + MAX_RANGE - 1) / MAX_RANGE);
+		List<Range> ranges = splitIntoLines(channel, headerEnd, fileSize, splits);
+
+		ExecutorService pool = ranges.size() > 1 ? Executors.newFixedThreadPool(Math.min(threads, ranges.size()), daemonThreads()) : null;
+		try {
+			List<Future<?>> reads = new ArrayList<Future<?>>();
+			for (final Range range : ranges) {
+				range.channel = channel;
+				range.types = types;
+				range.costs = costs;
+				range.rows = rows;
+				range.cols = cols;
+				if (pool != null) {
+					reads.add(pool.submit(range));
+				} else {
+					range.call();
+				}
+			}
+			for (Future<?> read : reads) {
+				read.get();
+			}
+		} catch (InterruptedException e) {
+			throw new IOException("Interrupted while reading the maze", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+
+		// the problems are reported in the order they are in the file, so the first bad tile is the one that is thrown
+		int start = HexGrid.NO_CELL;
+		int end = HexGrid.NO_CELL;
+		int rowsRead = 0;
+		for (Range range : ranges) {
+			if (range.error != null) {
+				throw range.error;
+			}
+			if (range.missingTiles >= 0) {
+				throw new IOException("Row " + range.missingTiles + " has fewer than " + cols + " tiles");
+			}
+			start = range.start != HexGrid.NO_CELL ? range.start : start;
+			end = range.end != HexGrid.NO_CELL ? range.end : end;
+			rowsRead = Math.max(rowsRead, range.lastRow);
+		}
+		if (rowsRead < rows) {
+			throw new IOException("The maze has " + rows + " rows but the file only has " + rowsRead);
+		}
+		return new HexGrid(rows, cols, types, costs.get(), start, end);
+	}
+
+
+	//Reads the two numbers on the first line and returns where the second line starts
+	private static int readHeader(MappedByteBuffer head, int[] header) throws IOException {
+		int i = 0;
+		int n = 0;
+		while (i < head.limit() && n < 2) {
+			byte b = head.get(i);
+			if (b >= '0' && b <= '9') {
+				long value = 0;
+				while (i < head.limit() && head.get(i) >= '0' && head.get(i) <= '9') {
+					value = value * 10 + (head.get(i++) - '0');
+					if (value > Integer.MAX_VALUE) {
+						throw new IOException("The number of rows or cols is too big");
+					}
+				}
+				header[n++] = (int) value;
+			} else if (b == '\n' || !isSpace(b)) {
+				throw new IOException("The first line must have the number of rows and cols");
+			} else {
+				i++;
+			}
+		}
+		if (n < 2) {
+			throw new IOException("The first line must have the number of rows and cols");
+		}
+		// anything else on the first line is ignored
+		while (i < head.limit() && head.get(i) != '\n') {
+			i++;
+		}
+		if (i == head.limit() && head.limit() == 256) {
+			throw new IOException("The first line is too long");
+		}
+		return Math.min(i + 1, head.limit());
+	}
+
+
+	/**
+	 * Splits the tiles of the file into ranges that each start at the beginning of a line
+	 * The file is cut into equal parts, the line breaks in every part are counted at the same time, and each part after the first is moved
+	 * forward to just after its first line break, the counts before it give the row it starts on
+	 */
+	private List<Range> splitIntoLines(final FileChannel channel, long from, long to, int splits) throws IOException {
+		final long[] cuts = new long[splits + 1];
+		for (int i = 0; i <= splits; i++) {
+			cuts[i] = from + (to - from) * i / splits;
+		}
+		final long[] firstBreak = new long[splits];
+		final long[] breaks = new long[splits];
+
+		if (splits > 1) {
+			ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, splits), daemonThreads());
+			try {
+				List<Future<?>> counts = new ArrayList<Future<?>>();
+				for (int i = 0; i < splits; i++) {
+					final int part = i;
+					counts.add(pool.submit(new Callable<Void>() {
+						public Void call() throws IOException {
+							countLines(channel, cuts[part], cuts[part + 1], part, firstBreak, breaks);
+							return null;
+						}
+					}));
+				}
+				for (Future<?> count : counts) {
+					count.get();
+				}
+			} catch (InterruptedException e) {
+				throw new IOException("Interrupted while reading the maze", e);
+			} catch (ExecutionException e) {
+				throw new IOException(e.getCause());
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		List<Range> ranges = new ArrayList<Range>();
+		ranges.add(new Range(from, 0));
+		long linesBefore = 0;
+		for (int i = 0; i < splits; i++) {
+			if (i > 0 && firstBreak[i] >= 0) {
+				ranges.add(new Range(firstBreak[i] + 1, linesBefore + 1));
+			}
+			linesBefore += breaks[i];
+		}
+		for (int i = 0; i < ranges.size(); i++) {
+			ranges.get(i).to = i + 1 < ranges.size() ? ranges.get(i + 1).from : to;
+		}
+		return ranges;
+	}
+
+
+	//Counts the line breaks in part of the file and finds the first one
+	private static void countLines(FileChannel channel, long from, long to, int part, long[] firstBreak, long[] breaks) throws IOException {
+		MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+		int first = -1;
+		long count = 0;
+		int size = bytes.limit();
+		for (int i = 0; i < size; i++) {
+			if (bytes.get(i) == '\n') {
+				if (first < 0) {
+					first = i;
+				}
+				count++;
+			}
+		}
+		firstBreak[part] = first < 0 ? -1 : from + first;
+		breaks[part] = count;
+	}
+
+
+	//Checks if a byte separates tiles, the same characters as a StringTokenizer except the line break
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+	}
+
+
+	//Returns a thread factory for threads that do not stop the program from exiting
+	private static ThreadFactory daemonThreads() {
+		return new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+
+	// A range of whole lines of the file, and what was found while reading it
+	private static class Range implements Callable<Void> {
+		private final long from;
+		private long to;
+		private final long firstRow;
+		private FileChannel channel;
+		private byte[] types;
+		private AtomicReference<byte[]> costs;	// shared by every range, null until a tile costs more than 1
+		private int rows;
+		private int cols;
+
+		private int start = HexGrid.NO_CELL;
+		private int end = HexGrid.NO_CELL;
+		private int lastRow;	// one more than the last row that was read
+		private int missingTiles = -1;	// the first row that did not have enough tiles, or -1
+		private UnknownMazeCharacterException error;	// the first unknown character
+
+		private Range(long from, long firstRow) {
+			this.from = from;
+			this.firstRow = firstRow;
+		}
+
+		//Reads every tile in the range, stops at the first problem or after the last row of the maze
+		public Void call() throws IOException {
+			if (firstRow >= rows || to <= from) {
+				return null;
+			}
+			if (to - from > Integer.MAX_VALUE) {
+				throw new IOException("The lines of the maze are too long");
+			}
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+			int size = bytes.limit();
+			int i = 0;
+			int r = (int) firstRow;
+			while (i < size && r < rows) {
+				int cell = r * cols;
+				int rowEnd = cell + cols;
+				boolean inTile = false;
+				byte b;
+				while (i < size && (b = bytes.get(i)) != '\n') {
+					if (isSpace(b)) {
+						inTile = false;
+					} else if (!inTile) {
+						inTile = true;
+						// only the first character of a tile counts, and tiles after the last column are ignored
+						if (cell < rowEnd) {
+							char token = (char) (b & 0xFF);
+							try {
+								types[cell] = HexGrid.typeCode(token);
+							} catch (UnknownMazeCharacterException e) {
+								error = e;
+								return null;
+							}
+							if (HexGrid.extraCost(token) != 0) {
+								if (costs.get() == null) {
+									costs.compareAndSet(null, new byte[types.length]);
+								}
+								costs.get()[cell] = HexGrid.extraCost(token);
+							}
+							if (token == 'S') {
+								start = cell;
+							} else if (token == 'E') {
+								end = cell;
+							}
+							cell++;
+						}
+					}
+					i++;
+				}
+				if (cell < rowEnd) {
+					missingTiles = r;
+					return null;
+				}
+				i++;	// the line break
+				r++;
+			}
+			lastRow = r;
+			return null;
+		}
+	}
+
+}
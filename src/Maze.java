@@ -1,7 +1,11 @@
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.Dimension;
+import java.awt.Toolkit;
 import java.io.*;
-import java.util.*;
 import javax.swing.JFrame;
-import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.Timer;
 
 
 /**
@@ -9,23 +13,40 @@ import javax.swing.JPanel;
  * - The Maze is built from a file with the following specifications
  * - The first line has the number of rows and cols
  * - Each subsequent line (there will be the same number of lines as rows)
+ * - The file is read into a HexGrid, the Maze is only a view of that grid which can be left out when no window is needed
+ * - The whole grid is drawn on one HexCanvas, so the window does not need a component for every tile
+ * - The canvas scrolls and zooms (Ctrl and the mouse wheel), and only draws the tiles that can be seen, so huge grids can be watched too
+ * - As a SearchListener the Maze colours its hexagons while a solver searches the grid
+ * - The solver never waits for the window: its changes go into a RenderQueue and a timer on the Swing thread takes them out and
+ *   draws them once per frame, so many changes are drawn with a single paint, and a hexagon that changed many times since the last frame is drawn once
+ * - How fast the changes are shown is set with setPacing, on its own from how fast the solver runs
+ *   REAL_TIME draws everything that has happened since the last frame, STEPS_PER_FRAME draws a fixed number of hexagons per frame
+ *   so the search can be watched, and OFF only draws the final state once searchFinished is called
  * 
  * (Note: because this maze is based on hexagons, each alternating row is  offset from the left side by half a hexagon, indicated by a space in the input file)
  * @author Melissa Tran
  */
-public class Maze extends JFrame { 
+public class Maze extends JFrame implements SearchListener { 
 
 	// Serialization UID
 	private static final long serialVersionUID = 1L;
 
 	// Public constants
-	// Default time delay when repainting the Maze to reflect hexagon changes
+	// Default time between two frames of the Maze, in milliseconds
 	public static final int DEFAULT_TIME_DELAY = 10;
 
+	// How the changes of a search are shown
+	public static enum Pacing{REAL_TIME, STEPS_PER_FRAME, OFF};
+
 	// Attributes
 	private int timeDelay = DEFAULT_TIME_DELAY;
-	Hexagon start;
-	Hexagon end;
+	private Pacing pacing = Pacing.REAL_TIME;
+	private int stepsPerFrame = 1;
+	private volatile boolean finished;	// set once the search is done, the OFF pacing draws everything after this
+	private RenderQueue changes;	// changes from the solver that have not been drawn yet
+	private Timer frameTimer;
+	private HexGrid grid;
+	private HexCanvas canvas;	// Draws every cell of the grid
 
 
 	/**
@@ -37,131 +58,158 @@ public class Maze extends JFrame {
 	 * @throws IOException
 	 */
 	public Maze(String inFile) throws UnknownMazeCharacterException, FileNotFoundException, IOException{
+		this(new HexGrid(inFile));
+	}
+
+
+	/**
+	 * Constructor to build a Graphical Maze with hexagonal tiles that shows a grid which was already loaded
+	 * @param grid
+	 */
+	public Maze(HexGrid grid){
 
 		// set up GUI aspects of the Maze component
 		super("Maze");
 		super.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		JPanel p = new JPanel();
-
-		// set up the file reader and read the first line
-		BufferedReader in;
-		String line="";
-		in = new BufferedReader(new FileReader(inFile));
-		line = in.readLine();
-
-		// Tokenize the first line to get the row and column
-		StringTokenizer lineTokens = new StringTokenizer(line);
-		int row = Integer.parseInt(lineTokens.nextToken());
-		int col = Integer.parseInt(lineTokens.nextToken());
-
-		
-		/**
-		 * To build the maze we will make temporary use of a 2D array
-		 * Once built, the hexagons themselves know all of their neighbors, so we do not need the 2D array anymore.
-		 * Add a row and col of nulls around the "edges" of the builder matrix (+2's)
-		 * This will greatly simplify the neighbor building process below
-		*/
-		Hexagon[][] hexMazeBuilder = new Hexagon[row+2][col+2];	
-
-		// HexLayout will arrange the Hexagons in the window
-		p.setLayout(new HexLayout(row, col, 4));
-
-		// for each row
-		for (int r = 1; r<row+1; r++){
-			line = in.readLine();
-			lineTokens = new StringTokenizer(line);
-			for(int c = 1; c< col+1; c++){
-				char token = lineTokens.nextToken().charAt(0);
-				switch(token){
-				case 'W':
-					hexMazeBuilder[r][c] = new Hexagon(Hexagon.HexType.WALL);
-					break;
-				case 'S':
-					hexMazeBuilder[r][c] = new Hexagon(Hexagon.HexType.START);
-					this.start = hexMazeBuilder[r][c];
-					break;
-				case 'E':
-					hexMazeBuilder[r][c] = new Hexagon(Hexagon.HexType.END);
-					this.end = hexMazeBuilder[r][c];
-					break;
-				case 'U':
-					hexMazeBuilder[r][c] = new Hexagon(Hexagon.HexType.UNVISITED);
-					break;
-				default:
-					// cannot build correct Maze
-					throw new UnknownMazeCharacterException(token);
-				}
-
-				// add to the GUI layout
-				p.add(hexMazeBuilder[r][c]);
-			}// end for cols
-		}// end for rows
-
-		
-		
-		//go through the 2D matrix again and build the neighbors
-		int offset = 0;
-		for(int r=1;r<row+1;r++){
-			for(int c=1;c<col+1;c++){
-				offset = 1 - r%2;
-
-				// set the neighbors for this hexagon in the builder
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r-1][c+offset], 0);
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r][c+1], 1);
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r+1][c+offset], 2);
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r+1][c-1+offset], 3);
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r][c-1], 4);
-				hexMazeBuilder[r][c].setNeighbour(hexMazeBuilder[r-1][c-1+offset], 5);
-			} // end for cols
-		} // end for rows
-
-		
-		//close the file
-		in.close();
-
-		//set up the GUI window
-		this.add(p);
+		this.grid = grid;
+
+		// one canvas draws every cell, it scrolls when the grid is bigger than the screen
+		canvas = new HexCanvas(grid);
+
+		//the timer that draws the changes from the solver, it runs on the Swing thread
+		changes = new RenderQueue(grid.size());
+		frameTimer = new Timer(timeDelay, new ActionListener(){
+			public void actionPerformed(ActionEvent e){
+				drawFrame();
+			}
+		});
+		frameTimer.start();
+
+		//set up the GUI window, no bigger than the screen, a grid that does not fit starts zoomed out
+		Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+		canvas.zoomToFit(screen.width - 100, screen.height - 100);
+		this.add(new JScrollPane(canvas));
 		this.pack();
-		this.setSize(30*row,30*col );
+		this.setSize(Math.min(getWidth(), screen.width), Math.min(getHeight(), screen.height));
 		this.setVisible(true);
 	}
 
 
+
+	 //Method will return the grid this window is showing
+	public HexGrid getGrid(){
+		return this.grid;
+	}
+
+
+	 //Method will return the canvas that draws the grid
+	public HexCanvas getCanvas(){
+		return this.canvas;
+	}
+
+
+	/**
+	 * Called by the solver when a cell changes during a search, on the solver's thread
+	 * The change is only queued, the hexagon is coloured by the next frame that draws it
+	 */
+	public void cellChanged(int cell, Hexagon.HexType state){
+		changes.cellChanged(cell, state);
+	}
+
+
+	/**
+	 * Tells the maze that the search is done, any changes after this (like the path) are still drawn
+	 * With the OFF pacing this is when the maze is drawn, and the frame timer stops once everything has been drawn
+	 */
+	public void searchFinished(){
+		finished = true;
+		if (!frameTimer.isRunning())
+			frameTimer.start();
+	}
+
+
+	/**
+	 * Sets how the changes of a search are shown
+	 * @param pacing - REAL_TIME, STEPS_PER_FRAME or OFF
+	 * @param stepsPerFrame - the number of hexagons drawn in each frame with STEPS_PER_FRAME
+	 */
+	public void setPacing(Pacing pacing, int stepsPerFrame){
+		if (stepsPerFrame < 1)
+			throw new IllegalArgumentException("At least one step must be drawn per frame");
+		this.pacing = pacing;
+		this.stepsPerFrame = stepsPerFrame;
+	}
+
+
+	public Pacing getPacing(){
+		return pacing;
+	}
+
+
+	//Sets the most frames that are drawn each second
+	public void setFrameRate(int framesPerSecond){
+		if (framesPerSecond < 1)
+			throw new IllegalArgumentException("The frame rate must be at least 1");
+		setTimeDelay(Math.max(1, 1000 / framesPerSecond));
+	}
+
+
+	/**
+	 * Colours the hexagons on a path with the backtrack colour, the start and end keep their own colours
+	 * The path is queued behind the changes of the search, a hexagon that is still waiting to be drawn is drawn in the backtrack colour straight away
+	 * @param path - a path through the grid this window is showing
+	 */
+	public void showPath(HexPath path){
+		int[] cells = path.toCells(grid);
+		for (int i = 1; i < cells.length - 1; i++){
+			changes.cellChanged(cells[i], Hexagon.HexType.BACKTRACK);
+		}
+		if (!frameTimer.isRunning())
+			frameTimer.start();
+	}
+
 	
-	 //Method will return a reference to the hexagon that is the start of the maze.
-	public Hexagon getStart(){
-		return this.start;
+	 //Method will return the cell that is the start of the maze, or HexGrid.NO_CELL if it has none.
+	public int getStart(){
+		return grid.getStart();
 	}
 	
 	
-	 //Method will return a reference to the hexagon that is the end of the maze.
-	public Hexagon getEnd(){
-		return this.end;
+	 //Method will return the cell that is the end of the maze, or HexGrid.NO_CELL if it has none.
+	public int getEnd(){
+		return grid.getEnd();
 	}
 	
 	
-	 //Get the current time delayed used when repainting the Maze to reflect changes made to the hexagon tiles
+	 //Get the current time between two frames of the Maze, in milliseconds
 	public int getTimeDelay() {
 		return timeDelay;
 	}
 
 
+	//Sets the time between two frames of the Maze, in milliseconds, the solver is never slowed down by it
 	public void setTimeDelay(int timeDelay) {
 		this.timeDelay = timeDelay;
+		frameTimer.setDelay(timeDelay);
 	}
 
 
 	/**
-	 * This method will update the maze to reflect any changes to the hexagonal tiles it shows.  
-	 * The method includes a time delay, which can be changed with the setDelay method.
+	 * Draws one frame, called by the frame timer on the Swing thread
+	 * The queued changes that the pacing allows are applied to the canvas, which repaints only the tiles that changed,
+	 * and Swing paints all of them together once the frame is done
 	 */
-	public void repaint() {
-		try {
-			Thread.sleep(this.timeDelay);
-		}catch(Exception e){ 
-			System.err.println("Error while issuing time delay\n" + e.getMessage());
-		}
-		super.repaint();
+	private void drawFrame(){
+		if (pacing == Pacing.OFF && !finished)
+			return;
+		int budget = pacing == Pacing.STEPS_PER_FRAME ? stepsPerFrame : Integer.MAX_VALUE;
+		int drawn = changes.drainTo(budget, new SearchListener(){
+			public void cellChanged(int cell, Hexagon.HexType state){
+				canvas.setType(cell, state);
+			}
+		});
+		if (drawn == 0 && finished)
+			frameTimer.stop();
 	}
 
 }
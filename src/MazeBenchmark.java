@@ -0,0 +1,322 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * - MazeBenchmark measures the parts of the program that get slow on big mazes, so every change can be checked against the same numbers
+ * - It measures the priority queues on their own, reading a maze file (with HexGrid(String) and with the MappedMazeLoader), going through the neighbours of every cell, and solving a maze from start to end
+ * - The mazes are made by the MazeGenerator when the benchmark starts, in four kinds
+ *   "perfect" is a maze with one route between any two rooms
+ *   "open" has no walls, the start is in the top left corner and the end in the bottom right corner
+ *   "serpentine" is all corridors, the only path goes back and forth across the whole maze
+ *   "noexit" is open but the end is walled in, so it can never be reached and every other cell is searched
+ * - Each benchmark is run over and over for a warm up time, so the JIT has compiled it, and then for the measured time
+ * - The time and the bytes allocated by one run are printed, the bytes come from the allocation counter of the thread (the same number a GC profiler reports)
+ *   Only the benchmark thread is counted: parse.mapped reads the file on a pool of threads of its own that are gone by the time the run ends,
+ *   so what they allocate is left out, the report says so under its header
+ *
+ * Eg. java MazeBenchmark
+ *     java MazeBenchmark -sizes 100,1000 -warmup 1000 -time 2000 -only solve
+ *
+ * @author Melissa Tran
+ */
+
+public class MazeBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {100, 500, 1000, 2000, 4000};
+	private static final int[] QUEUE_SIZES = {1000, 10000, 100000};
+	private static final int LINKED_QUEUE_LIMIT = 10000;	// the linked queue walks the whole list on every enqueue, bigger sizes take minutes
+
+	// Attributes
+	private long warmupMillis = 1000;
+	private long measureMillis = 3000;
+	private String only = null;
+	private volatile int sink;	// results are added in here so the JIT cannot throw the work away
+
+
+	//This is the main method which is used to run the program
+	public static void main(String[] args) {
+		try {
+			MazeBenchmark benchmark = new MazeBenchmark();
+			int[] sizes = DEFAULT_SIZES;
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-sizes") && i + 1 < args.length) {
+					String[] values = args[++i].split(",");
+					sizes = new int[values.length];
+					for (int s = 0; s < values.length; s++) {
+						sizes[s] = Integer.parseInt(values[s].trim());
+					}
+				} else if (args[i].equals("-warmup") && i + 1 < args.length) {
+					benchmark.warmupMillis = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-time") && i + 1 < args.length) {
+					benchmark.measureMillis = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-only") && i + 1 < args.length) {
+					benchmark.only = args[++i];
+				} else {
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+			}
+			benchmark.runAll(sizes);
+
+		//exceptions to be handled
+		} catch (NumberFormatException e) {
+			System.out.println("The sizes and times must be numbers: " + e.getMessage());
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Runs every benchmark and prints one line for each
+	 * @param: sizes - the number of rows (and columns) of the generated mazes
+	 * @throws Exception - if a maze file could not be written or read
+	 */
+	public void runAll(int[] sizes) throws Exception {
+		System.out.println(String.format(Locale.ROOT, "%-44s %12s %10s %16s", "benchmark", "ms/op", "ops", "bytes/op"));
+		System.out.println("(bytes/op only counts the benchmark thread, the loader threads of parse.mapped are not included)");
+
+		for (final int n : QUEUE_SIZES) {
+			final double[] priorities = randomPriorities(n);
+			if (n <= LINKED_QUEUE_LIMIT) {
+				run("queue.linked", n, new Callable<Object>() {
+					public Object call() {
+						return drain(new LinkedPriorityQueue<Integer>(), priorities);
+					}
+				});
+			}
+			run("queue.heap", n, new Callable<Object>() {
+				public Object call() {
+					return drain(new HeapPriorityQueue<Integer>(), priorities);
+				}
+			});
+			final IndexedIntPriorityQueue indexed = new IndexedIntPriorityQueue(n);
+			run("queue.indexed", n, new Callable<Object>() {
+				public Object call() {
+					int total = 0;
+					for (int i = 0; i < priorities.length; i++) {
+						indexed.enqueue(i, priorities[i]);
+					}
+					while (!indexed.isEmpty()) {
+						total += indexed.dequeueInt();
+					}
+					return total;
+				}
+			});
+		}
+
+		for (int size : sizes) {
+			for (String kind : MazeGenerator.KINDS) {
+				final File file = writeMaze(kind, size);
+				try {
+					String label = kind + " " + size + "x" + size;
+					run("parse", label, new Callable<Object>() {
+						public Object call() throws Exception {
+							return new HexGrid(file.getPath());
+						}
+					});
+					run("parse.mapped", label, new Callable<Object>() {
+						public Object call() throws Exception {
+							return MappedMazeLoader.load(file.getPath());
+						}
+					});
+					final HexGrid grid = MappedMazeLoader.load(file.getPath());
+					run("neighbours", label, new Callable<Object>() {
+						public Object call() {
+							int total = 0;
+							for (int cell = 0; cell < grid.size(); cell++) {
+								for (int side = 0; side <= 5; side++) {
+									total += grid.getNeighbour(cell, side);
+								}
+							}
+							return total;
+						}
+					});
+					final AStarSolver solver = new AStarSolver(grid, new IndexedIntPriorityQueue(grid.size()));
+					run("solve", label, new Callable<Object>() {
+						public Object call() {
+							return solver.solve();
+						}
+					});
+					// the same search run 10000 expansions at a time, to see what stopping and going on costs
+					final IncrementalSearch sliced = new IncrementalSearch(grid);
+					run("solve.sliced", label, new Callable<Object>() {
+						public Object call() {
+							sliced.begin(grid.getStart(), grid.getEnd());
+							while (!sliced.step(10000)) {
+							}
+							return sliced.getResult();
+						}
+					});
+					if (grid.getEnd() != HexGrid.NO_CELL) {
+						final AStarSolver weighted = new AStarSolver(grid, new IndexedIntPriorityQueue(grid.size()));
+						weighted.setEpsilon(1);
+						run("solve.epsilon", label, new Callable<Object>() {
+							public Object call() {
+								return weighted.solve();
+							}
+						});
+						run("alt.build", label, new Callable<Object>() {
+							public Object call() {
+								return new Landmarks(grid);
+							}
+						});
+						final AStarSolver landmarked = new AStarSolver(grid, new IndexedIntPriorityQueue(grid.size()));
+						landmarked.setHeuristic(new Landmarks(grid).newHeuristic());
+						run("solve.alt", label, new Callable<Object>() {
+							public Object call() {
+								return landmarked.solve();
+							}
+						});
+						final BidirectionalSolver bidirectional = new BidirectionalSolver(grid);
+						run("solve.bidirectional", label, new Callable<Object>() {
+							public Object call() {
+								return bidirectional.solve();
+							}
+						});
+						final JumpPointSolver jumpPoints = new JumpPointSolver(grid);
+						run("solve.jps", label, new Callable<Object>() {
+							public Object call() {
+								return jumpPoints.solve();
+							}
+						});
+						final FlowField field = new FlowField(grid);
+						run("flow.sweep", label, new Callable<Object>() {
+							public Object call() {
+								field.setGoal(grid.getEnd());
+								return field;
+							}
+						});
+						run("hpa.build", label, new Callable<Object>() {
+							public Object call() {
+								return new ClusterGraph(grid);
+							}
+						});
+						final HierarchicalSolver hierarchical = new HierarchicalSolver(grid);
+						run("solve.hpa", label, new Callable<Object>() {
+							public Object call() {
+								return hierarchical.solve();
+							}
+						});
+						// a cell in the middle of the path is closed and opened again, every run repairs the last search
+						final DStarLiteSolver replanner = new DStarLiteSolver(grid);
+						SearchResult first = replanner.solve();
+						if (first.isEndFound() && first.getSteps() >= 2) {
+							final int cell = first.getPath().toCells(grid)[first.getSteps() / 2];
+							run("replan", label, new Callable<Object>() {
+								public Object call() {
+									replanner.setWall(cell, !grid.isWall(cell));
+									return replanner.replan();
+								}
+							});
+							grid.setWall(cell, false);
+						}
+					}
+				} finally {
+					file.delete();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Runs one benchmark for the warm up time, then for the measured time, and prints the time and allocation per run
+	 * Each part runs the task at least once, so a task that takes longer than the times given is still measured
+	 * @param: name - the name of the benchmark
+	 * @param: params - what the benchmark was run on, eg. the maze size
+	 * @param: task - the work to measure, its result is kept so it is not optimised away
+	 * @throws Exception - if the task throws an exception
+	 */
+	private void run(String name, Object params, Callable<Object> task) throws Exception {
+		if (only != null && !name.startsWith(only)) {
+			return;
+		}
+		long warmupEnd = System.nanoTime() + warmupMillis * 1000000L;
+		do {
+			consume(task.call());
+		} while (System.nanoTime() < warmupEnd);
+
+		long allocatedBefore = allocatedBytes();
+		long begin = System.nanoTime();
+		long measureEnd = begin + measureMillis * 1000000L;
+		long ops = 0;
+		do {
+			consume(task.call());
+			ops++;
+		} while (System.nanoTime() < measureEnd);
+		long elapsed = System.nanoTime() - begin;
+		long allocatedAfter = allocatedBytes();
+
+		String bytes = allocatedBefore < 0 ? "n/a" : String.valueOf((allocatedAfter - allocatedBefore) / ops);
+		System.out.println(String.format(Locale.ROOT, "%-44s %12.3f %10d %16s", name + " " + params, elapsed / 1e6 / ops, ops, bytes));
+	}
+
+
+	//Keeps a result alive so the work that made it cannot be skipped
+	private void consume(Object result) {
+		sink += result == null ? 0 : System.identityHashCode(result);
+	}
+
+
+	//Returns the number of bytes the current thread has allocated so far, or -1 if the JVM cannot tell
+	private static long allocatedBytes() {
+		try {
+			java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		} catch (UnsupportedOperationException e) {
+			// the counter is switched off on this JVM
+		}
+		return -1;
+	}
+
+
+	//Enqueues every element with its priority and then dequeues them all
+	private static int drain(PriorityQueueADT<Integer> queue, double[] priorities) {
+		int total = 0;
+		for (int i = 0; i < priorities.length; i++) {
+			queue.enqueue(i, priorities[i]);
+		}
+		while (!queue.isEmpty()) {
+			total += queue.dequeue();
+		}
+		return total;
+	}
+
+
+	//Returns n priorities in a random order, the same every time so runs can be compared
+	private static double[] randomPriorities(int n) {
+		Random random = new Random(n);
+		double[] priorities = new double[n];
+		for (int i = 0; i < n; i++) {
+			priorities[i] = random.nextInt(n);
+		}
+		return priorities;
+	}
+
+
+	/**
+	 * Writes a maze of one of the kinds to a temporary file with the MazeGenerator
+	 * "open" and "noexit" mazes have no walls other than the ones around the end of a "noexit" maze
+	 * @param: kind - "perfect", "open", "serpentine" or "noexit"
+	 * @param: size - the number of rows and columns
+	 * @return: the file, it is deleted when the program ends if it is not deleted before
+	 * @throws IOException - if the file could not be written
+	 */
+	private static File writeMaze(String kind, int size) throws IOException {
+		File file = File.createTempFile("maze-" + kind + "-" + size + "-", ".txt");
+		file.deleteOnExit();
+		MazeGenerator generator = new MazeGenerator(kind, size, size, size);
+		generator.setDensity(0);
+		generator.write(file.getPath());
+		return file;
+	}
+
+}
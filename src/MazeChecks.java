@@ -0,0 +1,304 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * - MazeChecks runs the searches on small mazes whose answers are known and prints one line for each check, so a change that breaks
+ *   one of them is seen straight away, the same way MazeBenchmark is run after a change to see its numbers
+ * - The mazes are built in memory from the same characters as a maze file, random ones from a fixed seed so every run checks the same mazes
+ * - It ends with the number of checks that failed, and exits with 1 if any did
+ *
+ * Eg. java MazeChecks
+ *
+ * @author Melissa Tran
+ */
+
+public class MazeChecks {
+
+	private static final String[] QUEUE_TYPES = {"linked", "heap", "indexed"};
+
+	// Attributes
+	private int checks;
+	private int failures;
+
+
+	//This is the main method which is used to run the program
+	public static void main(String[] args) {
+		MazeChecks checks = new MazeChecks();
+		checks.runAll();
+		System.out.println(checks.checks + " checks, " + checks.failures + " failed");
+		if (checks.failures > 0) {
+			System.exit(1);
+		}
+	}
+
+
+	//Runs every check
+	public void runAll() {
+		terrainCosts();
+		wallStartOrEnd();
+		smallGeneratedMazes();
+		expiredDeadline();
+	}
+
+
+	/**
+	 * Random mazes with terrain are solved by the astar mode with every queue type, and the cost of each path is compared
+	 * with the one Dijkstra's algorithm finds, with an epsilon the path may cost at most (1 + epsilon) times as much
+	 */
+	private void terrainCosts() {
+		double[] epsilons = {0, 0.5, 2};
+		for (String queueType : QUEUE_TYPES) {
+			for (double epsilon : epsilons) {
+				Random random = new Random(22);	// every queue and epsilon gets the same mazes
+				int bad = 0;
+				int mazes = 0;
+				String detail = "";
+				for (int m = 0; m < 500; m++) {
+					HexGrid grid = randomTerrain(random, 2 + random.nextInt(15), 2 + random.nextInt(15));
+					int cheapest = dijkstra(grid, grid.getStart(), grid.getEnd());
+					SearchResult result = MazeSolverToo.createSolver("astar", queueType, epsilon, grid).solve(grid.getStart(), grid.getEnd());
+					int found = result.isEndFound() ? pathCost(grid, result.getPath()) : -1;
+					boolean ok = cheapest < 0 ? !result.isEndFound()
+							: result.isEndFound() && found == result.getSteps() && found <= (1 + epsilon) * cheapest;
+					mazes++;
+					if (!ok) {
+						bad++;
+						detail = " (cheapest " + cheapest + ", found " + found + ")";
+					}
+				}
+				check("terrain costs, queue " + queueType + ", epsilon " + epsilon, bad == 0, bad + " of " + mazes + " mazes" + detail);
+			}
+		}
+	}
+
+
+	/**
+	 * Every path finder is given a start or an end on a wall of a 1x3 maze, "W U E" with the start on the wall and "S U W" with the end on it,
+	 * none of them may find a path or expand anything
+	 */
+	private void wallStartOrEnd() {
+		String[] modes = {"astar", "bidirectional", "jps", "hpa", "dstar", "sliced"};
+		HexGrid[] grids = {grid(new String[] {"WUE"}, 0, 2), grid(new String[] {"SUW"}, 0, 2)};
+		String[] names = {"wall start", "wall end"};
+		for (int g = 0; g < grids.length; g++) {
+			HexGrid grid = grids[g];
+			for (String mode : modes) {
+				SearchResult result;
+				if (mode.equals("dstar")) {
+					result = new DStarLiteSolver(grid).solve(grid.getStart(), grid.getEnd());
+				} else if (mode.equals("sliced")) {
+					IncrementalSearch search = new IncrementalSearch(grid);
+					search.begin(grid.getStart(), grid.getEnd());
+					boolean finished = search.step(1);
+					result = finished ? search.getResult() : null;
+				} else {
+					result = MazeSolverToo.createSolver(mode, "indexed", 0, grid).solve(grid.getStart(), grid.getEnd());
+				}
+				check(names[g] + ", mode " + mode, result != null && !result.isEndFound() && result.getExpansions() == 0 && result.getPath() == null,
+						String.valueOf(result));
+			}
+		}
+	}
+
+
+	/**
+	 * Generates every kind of maze at the smallest sizes, a maze that has room for them must have a start and an end on two different tiles
+	 * (and a noexit maze walls all around its end), the others must be turned down by the MazeGenerator
+	 */
+	private void smallGeneratedMazes() {
+		int[][] sizes = {{1, 2}, {2, 1}, {2, 2}, {1, 3}, {3, 1}, {2, 3}, {3, 2}, {3, 3}};
+		for (String kind : MazeGenerator.KINDS) {
+			for (int[] size : sizes) {
+				int rows = size[0];
+				int cols = size[1];
+				boolean tooSmall = kind.equals("perfect") && rows < 3 && cols < 3
+						|| kind.equals("noexit") && (rows == 1 && cols == 2 || rows == 2 && cols == 1);
+				String name = kind + " " + rows + "x" + cols;
+				MazeGenerator generator;
+				try {
+					generator = new MazeGenerator(kind, rows, cols, 1);
+				} catch (IllegalArgumentException e) {
+					check(name + " is turned down", tooSmall, e.getMessage());
+					continue;
+				}
+				if (tooSmall) {
+					check(name + " is turned down", false, "it was generated");
+					continue;
+				}
+				HexGrid grid = generate(generator, rows);
+				boolean ok = grid.getStart() != HexGrid.NO_CELL && grid.getEnd() != HexGrid.NO_CELL && grid.getStart() != grid.getEnd();
+				String detail = "start " + grid.getStart() + ", end " + grid.getEnd();
+				if (ok && kind.equals("noexit")) {
+					for (int side = 0; side <= 5; side++) {
+						int neighbour = grid.getNeighbour(grid.getEnd(), side);
+						ok &= neighbour == HexGrid.NO_CELL || grid.isWall(neighbour);
+					}
+					ok &= !new AStarSolver(grid, new IndexedIntPriorityQueue(grid.size())).solve().isEndFound();
+					detail += ", the end is not walled in";
+				}
+				check(name + " has a start and an end", ok, detail);
+			}
+		}
+	}
+
+
+	/**
+	 * A sliced search on an open 20x20 maze is stepped with a deadline that has already passed, every call must expand exactly one cell
+	 */
+	private void expiredDeadline() {
+		String[] rows = new String[20];
+		Arrays.fill(rows, "UUUUUUUUUUUUUUUUUUUU");
+		HexGrid grid = grid(rows, 0, 399);
+		IncrementalSearch search = new IncrementalSearch(grid);
+		search.begin(grid.getStart(), grid.getEnd());
+		String detail = "";
+		for (int call = 1; call <= 40 && detail.isEmpty(); call++) {
+			search.stepUntil(System.nanoTime() - 1000000);
+			if (search.getExpansions() != call)
+				detail = "call " + call + " left " + search.getExpansions() + " cells expanded";
+		}
+		check("expired deadline expands one cell", detail.isEmpty(), detail);
+	}
+
+
+	//Writes a generated maze to memory and reads it back into a grid
+	private static HexGrid generate(MazeGenerator generator, int rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			generator.write(out);
+		} catch (IOException e) {
+			throw new IllegalStateException(e.getMessage());
+		}
+		String[] lines = new String(out.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+		String[] tiles = new String[rows];
+		for (int r = 0; r < rows; r++) {
+			tiles[r] = lines[r + 1].replace(" ", "");
+		}
+		return grid(tiles);
+	}
+
+
+	//Prints the outcome of one check and counts it
+	private void check(String name, boolean ok, String detail) {
+		checks++;
+		if (ok) {
+			System.out.println("ok      " + name);
+		} else {
+			failures++;
+			System.out.println("FAILED  " + name + ": " + detail);
+		}
+	}
+
+
+	/**
+	 * Builds a grid from the characters of a maze file, one string per row without the spaces
+	 * @param: rows - eg. "WUE", W, S, E, U or a digit 1-9 for each tile
+	 * @return: the grid
+	 */
+	static HexGrid grid(String... rows) {
+		return grid(rows, HexGrid.NO_CELL, HexGrid.NO_CELL);
+	}
+
+
+	/**
+	 * Builds a grid from the characters of a maze file, with the start and end on given cells instead of the S and E tiles
+	 * @param: rows - eg. "WUE", W, S, E, U or a digit 1-9 for each tile
+	 * @param: start - the start cell, even if it is a wall, or HexGrid.NO_CELL for the S tile
+	 * @param: end - the end cell, even if it is a wall, or HexGrid.NO_CELL for the E tile
+	 * @return: the grid
+	 */
+	static HexGrid grid(String[] rows, int start, int end) {
+		int cols = rows[0].length();
+		byte[] types = new byte[rows.length * cols];
+		byte[] costs = new byte[rows.length * cols];
+		boolean hasCosts = false;
+		int startTile = HexGrid.NO_CELL;
+		int endTile = HexGrid.NO_CELL;
+		try {
+			for (int r = 0; r < rows.length; r++) {
+				for (int c = 0; c < cols; c++) {
+					int cell = r * cols + c;
+					char token = rows[r].charAt(c);
+					types[cell] = HexGrid.typeCode(token);
+					costs[cell] = HexGrid.extraCost(token);
+					hasCosts |= costs[cell] != 0;
+					if (token == 'S')
+						startTile = cell;
+					else if (token == 'E')
+						endTile = cell;
+				}
+			}
+		} catch (UnknownMazeCharacterException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+		return new HexGrid(rows.length, cols, types, hasCosts ? costs : null, start != HexGrid.NO_CELL ? start : startTile,
+				end != HexGrid.NO_CELL ? end : endTile);
+	}
+
+
+	//Makes a random maze with walls and terrain that costs 1 to 9, the start and end on two different open tiles
+	private static HexGrid randomTerrain(Random random, int rows, int cols) {
+		char[][] tiles = new char[rows][cols];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int roll = random.nextInt(10);
+				tiles[r][c] = roll < 1 ? 'W' : (char) ('1' + random.nextInt(9));
+			}
+		}
+		int start = random.nextInt(rows * cols);
+		int end = (start + 1 + random.nextInt(rows * cols - 1)) % (rows * cols);
+		tiles[start / cols][start % cols] = 'S';
+		tiles[end / cols][end % cols] = 'E';
+		String[] lines = new String[rows];
+		for (int r = 0; r < rows; r++) {
+			lines[r] = new String(tiles[r]);
+		}
+		return grid(lines);
+	}
+
+
+	/**
+	 * Works out what the cheapest path between two cells costs with Dijkstra's algorithm, taking the closest unsettled cell each time
+	 * @return: the cost, every cell stepped onto costs what HexGrid.getCost says, or -1 if the end cannot be reached
+	 */
+	private static int dijkstra(HexGrid grid, int start, int end) {
+		int[] costs = new int[grid.size()];
+		boolean[] settled = new boolean[grid.size()];
+		Arrays.fill(costs, Integer.MAX_VALUE);
+		costs[start] = 0;
+		while (true) {
+			int closest = HexGrid.NO_CELL;
+			for (int cell = 0; cell < grid.size(); cell++) {
+				if (!settled[cell] && costs[cell] != Integer.MAX_VALUE && (closest == HexGrid.NO_CELL || costs[cell] < costs[closest]))
+					closest = cell;
+			}
+			if (closest == HexGrid.NO_CELL)
+				return -1;
+			if (closest == end)
+				return costs[end];
+			settled[closest] = true;
+			for (int side = 0; side <= 5; side++) {
+				int neighbour = grid.getNeighbour(closest, side);
+				if (neighbour != HexGrid.NO_CELL && !grid.isWall(neighbour))
+					costs[neighbour] = Math.min(costs[neighbour], costs[closest] + grid.getCost(neighbour));
+			}
+		}
+	}
+
+
+	//Returns what walking a path costs, every cell after the first costs what HexGrid.getCost says, or -1 if it steps onto a wall or off the grid
+	private static int pathCost(HexGrid grid, HexPath path) {
+		int[] cells = path.toCells(grid);
+		int cost = 0;
+		for (int i = 1; i < cells.length; i++) {
+			if (cells[i] == HexGrid.NO_CELL || grid.isWall(cells[i]))
+				return -1;
+			cost += grid.getCost(cells[i]);
+		}
+		return cost;
+	}
+
+}
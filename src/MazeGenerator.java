@@ -0,0 +1,294 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * - MazeGenerator writes random maze files in the same format as the hand-written ones: the rows and cols on the first line, then one line
+ *   per row with a W, S, E or U for each tile, and every odd row starting with a space for the half hexagon offset
+ * - The same kind, size and seed always give the same maze
+ * - The maze is written one row at a time and only the current row (and for perfect mazes one row of passages) is kept, so a 10000x10000
+ *   maze takes no more memory than a small one
+ * - There are four kinds of mazes
+ *   "perfect" is a maze with exactly one route between any two rooms, made with the sidewinder algorithm. The rooms are the tiles on even rows
+ *   and even columns, and the tiles between them are either passages or walls
+ *   "open" is an open field where each tile is a wall with the given density, there may be no route from the start to the end
+ *   "serpentine" has a wall on every odd row with one gap, at the right end and the left end in turn, so the only route goes back and forth across the whole maze
+ *   "noexit" is an open field like "open" but the six tiles around the end are all walls, so the end can never be reached
+ * - The start is in the top left corner and the end is in the bottom right corner (the last room of a perfect maze)
+ *   A perfect maze needs at least 3 rows or 3 columns so its last room is not its first one, and a noexit maze must not have its start next to its end
+ * - With a terrain density above 0 that many of the open tiles are given a random cost from 2 to 9 instead of U,
+ *   the costs come from their own random numbers, so the walls are the same as without terrain
+ *
+ * Eg. java MazeGenerator perfect 10000 10000 big.txt
+ *     java MazeGenerator open 2000 2000 field.txt -density 0.3 -seed 7
+ *     java MazeGenerator open 1000 1000 swamp.txt -terrain 0.4
+ *
+ * @author Melissa Tran
+ */
+
+public class MazeGenerator {
+
+	// The kinds of mazes that can be generated
+	public static final String[] KINDS = {"perfect", "open", "serpentine", "noexit"};
+
+	public static final double DEFAULT_DENSITY = 0.25;
+
+	// Attributes
+	private final String kind;
+	private final int rows;
+	private final int cols;
+	private final long seed;
+	private double density = DEFAULT_DENSITY;
+	private double terrain = 0;
+
+
+	/**
+	 * Creates a generator for one maze
+	 * @param: kind - "perfect", "open", "serpentine" or "noexit"
+	 * @param: rows - the number of rows
+	 * @param: cols - the number of columns
+	 * @param: seed - the seed of the random numbers, the same seed gives the same maze
+	 * @exception: IllegalArgumentException - if the kind is unknown or the maze does not have room for a start and an end (and for a noexit maze the walls between them)
+	 */
+	public MazeGenerator(String kind, int rows, int cols, long seed) {
+		boolean known = false;
+		for (String k : KINDS) {
+			known |= k.equals(kind);
+		}
+		if (!known) {
+			throw new IllegalArgumentException("Unknown kind of maze: " + kind);
+		}
+		if (rows < 1 || cols < 1 || (long) rows * cols < 2) {
+			throw new IllegalArgumentException("A maze needs at least two tiles, not " + rows + "x" + cols);
+		}
+		if (kind.equals("perfect") && rows < 3 && cols < 3) {
+			// the only room is the top left corner, the end would be written over the start
+			throw new IllegalArgumentException("A perfect maze needs at least 3 rows or 3 columns, not " + rows + "x" + cols);
+		}
+		if (kind.equals("noexit") && isNextTo(0, 0, rows - 1, cols - 1)) {
+			// the start would take the place of one of the walls around the end
+			throw new IllegalArgumentException("A noexit maze needs room for the walls between the start and the end, not " + rows + "x" + cols);
+		}
+		this.kind = kind;
+		this.rows = rows;
+		this.cols = cols;
+		this.seed = seed;
+	}
+
+
+	//This is the main method which is used to run the program
+	public static void main(String[] args) {
+		try {
+			if (args.length < 4) {
+				throw new IllegalArgumentException("Usage: java MazeGenerator <perfect|open|serpentine|noexit> <rows> <cols> <file> [-seed n] [-density d] [-terrain t]");
+			}
+			long seed = 1;
+			double density = DEFAULT_DENSITY;
+			double terrain = 0;
+			for (int i = 4; i < args.length; i++) {
+				if (args[i].equals("-seed") && i + 1 < args.length) {
+					seed = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-density") && i + 1 < args.length) {
+					density = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-terrain") && i + 1 < args.length) {
+					terrain = Double.parseDouble(args[++i]);
+				} else {
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+			}
+			MazeGenerator generator = new MazeGenerator(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+			generator.setDensity(density);
+			generator.setTerrain(terrain);
+			generator.write(args[3]);
+
+		//exceptions to be handled
+		} catch (NumberFormatException e) {
+			System.out.println("The rows, cols, seed, density and terrain must be numbers: " + e.getMessage());
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+
+
+	/**
+	 * Sets how many of the tiles of an "open" or "noexit" maze are walls
+	 * @param: density - from 0 for no walls up to (but not including) 1
+	 * @exception: IllegalArgumentException - if the density is not in that range
+	 */
+	public void setDensity(double density) {
+		if (!(density >= 0 && density < 1)) {
+			throw new IllegalArgumentException("The density must be at least 0 and less than 1, not " + density);
+		}
+		this.density = density;
+	}
+
+
+	/**
+	 * Sets how many of the open tiles cost more than 1 to step onto
+	 * @param: terrain - from 0 for none (the default) up to 1 for every open tile
+	 * @exception: IllegalArgumentException - if the terrain density is not in that range
+	 */
+	public void setTerrain(double terrain) {
+		if (!(terrain >= 0 && terrain <= 1)) {
+			throw new IllegalArgumentException("The terrain density must be from 0 to 1, not " + terrain);
+		}
+		this.terrain = terrain;
+	}
+
+
+	/**
+	 * Writes the maze to a file
+	 * @param: file - the name of the file, it is replaced if it exists
+	 * @throws IOException - if the file could not be written
+	 */
+	public void write(String file) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+
+	/**
+	 * Writes the maze to a stream one row at a time, the stream is not closed
+	 * @param: out - where to write the maze
+	 * @throws IOException - if the maze could not be written
+	 */
+	public void write(OutputStream out) throws IOException {
+		Random random = new Random(seed);
+		Random terrainRandom = new Random(~seed);
+		byte[] tiles = new byte[cols];
+		byte[] line = new byte[2 * cols + 1];	// the tiles with a space before each one, the first space is only written on odd rows
+		out.write((rows + " " + cols + "\n").getBytes("US-ASCII"));
+
+		// the last room of a perfect maze, the end goes there instead of the bottom right corner
+		int lastRoomRow = (rows - 1) / 2 * 2;
+		int lastRoomCol = (cols - 1) / 2 * 2;
+		int endRow = kind.equals("perfect") ? lastRoomRow : rows - 1;
+		int endCol = kind.equals("perfect") ? lastRoomCol : cols - 1;
+
+		// for perfect mazes: which rooms of the current row have a passage to the right, and which have a passage up
+		boolean[] east = new boolean[lastRoomCol / 2 + 1];
+		boolean[] up = new boolean[east.length];
+
+		for (int r = 0; r < rows; r++) {
+			if (kind.equals("perfect")) {
+				if (r % 2 == 1 && r + 1 < rows) {
+					carveRoomRow(random, east, up);
+				} else if (r == 0) {
+					// the first row of rooms is one long passage
+					Arrays.fill(east, true);
+					east[east.length - 1] = false;
+				}
+				perfectRow(r, east, up, tiles);
+			} else {
+				for (int c = 0; c < cols; c++) {
+					tiles[c] = tileAt(r, c, random, endRow, endCol);
+				}
+			}
+			if (terrain > 0) {
+				for (int c = 0; c < cols; c++) {
+					if (tiles[c] == 'U' && terrainRandom.nextDouble() < terrain) {
+						tiles[c] = (byte) ('2' + terrainRandom.nextInt(8));
+					}
+				}
+			}
+			if (r == 0) {
+				tiles[0] = 'S';
+			}
+			if (r == endRow) {
+				tiles[endCol] = 'E';
+			}
+
+			for (int c = 0; c < cols; c++) {
+				line[2 * c] = ' ';
+				line[2 * c + 1] = tiles[c];
+			}
+			line[2 * cols] = '\n';
+			// even rows skip the first space, odd rows are offset by half a hexagon
+			out.write(line, r % 2 == 0 ? 1 : 0, r % 2 == 0 ? 2 * cols : 2 * cols + 1);
+		}
+		out.flush();
+	}
+
+
+	/**
+	 * Uses the sidewinder algorithm to pick the passages of the next row of rooms
+	 * The rooms are split into runs that are joined left to right, and each run gets one passage up to the row above at a random room
+	 * @param: random - the random numbers of this maze
+	 * @param: east - set to true for each room that has a passage to the room on its right
+	 * @param: up - set to true for each room that has a passage to the room above it
+	 */
+	private static void carveRoomRow(Random random, boolean[] east, boolean[] up) {
+		int runStart = 0;
+		for (int j = 0; j < east.length; j++) {
+			up[j] = false;
+			boolean closeRun = j == east.length - 1 || random.nextBoolean();
+			if (closeRun) {
+				up[runStart + random.nextInt(j - runStart + 1)] = true;
+				runStart = j + 1;
+			}
+			east[j] = !closeRun;
+		}
+	}
+
+
+	/**
+	 * Fills in a row of a perfect maze
+	 * On an even row the rooms are at the even columns and the passages to the right are at the odd columns,
+	 * on an odd row the passage up from the room at column c is at column c of that row, which touches the room above and the room below
+	 * @param: r - the row
+	 * @param: east - the passages to the right of the rooms on this row, or the row below if this row is odd
+	 * @param: up - the passages up from the rooms on the row below
+	 * @param: tiles - where the row is written
+	 */
+	private void perfectRow(int r, boolean[] east, boolean[] up, byte[] tiles) {
+		for (int c = 0; c < cols; c++) {
+			boolean open;
+			if (r % 2 == 0) {
+				open = c % 2 == 0 || (c / 2 < east.length && east[c / 2]);
+			} else {
+				open = r + 1 < rows && c % 2 == 0 && up[c / 2];
+			}
+			tiles[c] = (byte) (open ? 'U' : 'W');
+		}
+	}
+
+
+	//Returns the tile of an "open", "serpentine" or "noexit" maze at a row and column
+	private byte tileAt(int r, int c, Random random, int endRow, int endCol) {
+		if (kind.equals("serpentine")) {
+			if (r % 2 == 0) {
+				return 'U';
+			}
+			// the gap is at the right end on rows 1, 5, 9... and at the left end on rows 3, 7, 11...
+			int gap = (r / 2) % 2 == 0 ? cols - 1 : 0;
+			return (byte) (c == gap ? 'U' : 'W');
+		}
+		if (kind.equals("noexit") && isNextTo(r, c, endRow, endCol)) {
+			return 'W';
+		}
+		return (byte) (random.nextDouble() < density ? 'W' : 'U');
+	}
+
+
+	//Checks if the tile at (r, c) is one of the six neighbours of the tile at (r2, c2), with the same odd row offset as HexGrid.getNeighbour
+	private static boolean isNextTo(int r, int c, int r2, int c2) {
+		if (r == r2) {
+			return c == c2 - 1 || c == c2 + 1;
+		}
+		if (r == r2 - 1 || r == r2 + 1) {
+			int offset = r2 % 2;
+			return c == c2 + offset || c == c2 - 1 + offset;
+		}
+		return false;
+	}
+
+}
@@ -2,19 +2,29 @@
 import java.io.FileNotFoundException;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
-/** 
+/**
  * - This program represents a maze solver using a priority queue
- * - It initializes a maze, enqueues the starting hexagon, and solves the maze
- * - The main method initializes various counters and flags 
- * 
+ * - It loads a maze into a HexGrid with the MappedMazeLoader, enqueues the starting hexagon, and solves the maze with an AStarSolver
+ *   or, with "-mode bidirectional", a BidirectionalSolver that searches from the start and the end at once
+ *   or, with "-mode jps", a JumpPointSolver that only enqueues the cells where the path may turn
+ *   or, with "-mode hpa", a HierarchicalSolver that searches a graph of clusters of the maze and then only the clusters on the path
+ * - On a maze with terrain costs (digits 2-9) only the astar mode can be used, it finds the cheapest path and "-epsilon e" makes it weighted A*
+ * - "-landmarks k" gives the astar mode a heuristic from a table of k landmarks, kept next to the maze file so it is only worked out the first time
+ * - The maze window is only opened when a display is wanted, with "-nogui" (or java.awt.headless=true) the maze is solved without loading any Swing or AWT classes
+ *
  * @author Melissa Tran
  */
 
 public class MazeSolverToo {
 
+	// The search modes that can be given with "-mode"
+	static final List<String> MODES = Arrays.asList("astar", "bidirectional", "jps", "hpa");
 
-	//This is the main method which is used to run the program 
+
+	//This is the main method which is used to run the program
 	public static void main(String[] args) {
 		try {
 			// if the length of the file is less than 1, then there was no file
@@ -23,122 +33,115 @@ public class MazeSolverToo {
 				throw new IllegalArgumentException("No maze was provided");
 			}
 
-			
 			/**
-			 * Initialize the maze and setup variables
-			 * maze: Represents the maze file that was passed through
-			 * startingHexagon: Represents the start tile in the maze
-			 * linkedPriorityQueue: Represents the linked priority queue to store the hexagon tiles
-			 * totalStepCounter: The total number of steps to dequeue and enqueue the tiles
-			 * hexagonInQueue: The number of hexagons currently in the queue
-			 * isThereEnd: Flag to check if there's an end
+			 * The maze file can be followed by these options
+			 * "-mode astar" or "-mode bidirectional" to search only forward from the start (the default) or from the start and the end at once
+			 * "-mode jps" to jump over straight runs and only enqueue the jump points
+			 * "-mode hpa" to search the clusters of the maze first, the path can be a little longer than the shortest one
+			 * "-queue linked", "-queue heap" or "-queue indexed" to pick the priority queue of the astar mode, the indexed heap is the default
+			 * "-epsilon e" to weight the heuristic of the astar mode by 1 + e, fewer hexagons are expanded and the path costs at most 1 + e times the cheapest one
+			 * "-landmarks k" to search with the distances to k landmarks as the heuristic of the astar mode, the table is saved as <maze file>.landmarks
+			 * "-nogui" to solve the maze without opening a window
+			 * "-path" to print the path as the side (0-5) of every step, the path is always coloured in the window
+			 * "-pace realtime", "-pace off" or "-pace n" to show the search as it happens, only show the end, or draw n changed hexagons per frame (the default is 2)
+			 * "-fps n" for the most frames the window draws each second (the default is 20)
+			 * The solver always runs at full speed, the pace only changes how the window shows it
 			 */
-			Maze maze = new Maze(args[0]);
-			maze.setTimeDelay(50);
-			Hexagon startingHexagon = maze.getStart();
-			startingHexagon.setStarted(); 
-			maze.repaint();
-			LinkedPriorityQueue<Hexagon> linkedPriorityQueue = new LinkedPriorityQueue<Hexagon>();
-			linkedPriorityQueue.enqueue(startingHexagon);
-			int totalStepCounter = 0;
-			int hexagonInQueue = linkedPriorityQueue.size(); 
-			boolean isThereEnd = false;
-			
-			
+			String mode = "astar";
+			String queueType = "indexed";
+			double epsilon = 0;
+			int landmarkCount = 0;
+			boolean showMaze = !"true".equals(System.getProperty("java.awt.headless"));
+			boolean printPath = false;
+			Maze.Pacing pacing = Maze.Pacing.STEPS_PER_FRAME;
+			int stepsPerFrame = 2;
+			int framesPerSecond = 20;
+			for (int i = 1; i < args.length; i++) {
+				if (args[i].equals("-mode") && i + 1 < args.length) {
+					mode = args[++i];
+				} else if (args[i].equals("-queue") && i + 1 < args.length) {
+					queueType = args[++i];
+				} else if (args[i].equals("-epsilon") && i + 1 < args.length) {
+					epsilon = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-landmarks") && i + 1 < args.length) {
+					landmarkCount = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-nogui")) {
+					showMaze = false;
+				} else if (args[i].equals("-path")) {
+					printPath = true;
+				} else if (args[i].equals("-pace") && i + 1 < args.length) {
+					String pace = args[++i];
+					if (pace.equals("realtime")) {
+						pacing = Maze.Pacing.REAL_TIME;
+					} else if (pace.equals("off")) {
+						pacing = Maze.Pacing.OFF;
+					} else {
+						pacing = Maze.Pacing.STEPS_PER_FRAME;
+						stepsPerFrame = Integer.parseInt(pace);
+					}
+				} else if (args[i].equals("-fps") && i + 1 < args.length) {
+					framesPerSecond = Integer.parseInt(args[++i]);
+				} else {
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+			}
+
+
 			/**
-			 * Explore the maze to find the end tile
-			 * checkHex: Represents the hexagon that is recently dequeued
-			 * totalStepCounter: Tracks the total number of steps
-			 * hexagonInQueue: Tracks the number of hexagons in the queue
-			 * isThereEnd: Flag to indicate if there's an end tile
+			 * Initialize the maze and the solver
+			 * grid: Represents the maze file that was passed through
+			 * solver: Searches the grid, a maze window is attached to it when the maze is shown
 			 */
+			HexGrid grid = MappedMazeLoader.load(args[0]);
+			PathFinder solver = createSolver(mode, queueType, epsilon, grid);
+			if (landmarkCount != 0) {
+				if (!(solver instanceof AStarSolver)) {
+					throw new IllegalArgumentException("Only the astar mode can use landmarks");
+				}
+				Landmarks landmarks = Landmarks.loadOrBuild(args[0] + ".landmarks", grid, landmarkCount);
+				((AStarSolver) solver).setHeuristic(landmarks.newHeuristic());
+			}
+			Maze maze = null;
+			if (showMaze) {
+				maze = new Maze(grid);
+				maze.setPacing(pacing, stepsPerFrame);
+				maze.setFrameRate(framesPerSecond);
+				solver.setListener(maze);
+			}
 
 			// Explore the maze until the end tile is found
-			
-			while (!linkedPriorityQueue.isEmpty()) {
-				Hexagon checkHex = linkedPriorityQueue.dequeue();
-				checkHex.setCurrent();
-				totalStepCounter ++;
-				hexagonInQueue --;
-				
-				if(checkHex.isStart()){
-					checkHex.setStarted();
-					maze.repaint();
-				}
-				
-				//now check if the hexagon is the end tile 
-				if (checkHex.isEnd()) {
-					checkHex.setCurrent();
-					//change the color to yellow
-					maze.repaint();
-					checkHex.setFinished();
-					//setFinished, will change the tile color to a darker yellow 
-					isThereEnd= true;
-					break;	
-				}
-				
-				
-				//now check if the hexagon is not the end tile
-				if (!checkHex.isEnd()) {
-					for (int side = 0; side <= 5; side++) {
-						Hexagon neighbour = checkHex.getNeighbour(side);
-						if (neighbour == null || neighbour.isWall())
-							continue;
-						if (neighbour.isDequeued()) {
-							continue;
-						}
-						if (!neighbour.isDequeued() && !neighbour.isEnqueued()
-								&& !neighbour.isWall()) {
-							neighbour.setSteps(checkHex.getSteps() +1);
-							//checkHex, get the hexagon you have dequeued, get the steps it takes for THAT hexagon to reach the exit, and set that number as the distance for the neighbouring hexagon
-							//you add one because you must include the neighbouring hexagon in the step too
-							//this now gives you the distance, of all neighbouring hexagons to the end
-							// f(x)= g(x) + h(x);
-							
-							double priority = neighbour.distanceToEnd(maze)+ neighbour.getSteps();
-							//priority is based on the distance from this hexagon to the end of the maze, PLUS the steps it takes for the neighbour to get there
-							linkedPriorityQueue.enqueue(neighbour, priority);
-							neighbour.setEnqueued();
-							maze.repaint();
-							totalStepCounter++;
-							hexagonInQueue++;
-							}
-						}
-					
-					
-				/**
-				 * you know that after you dequeue the first hexagon, that the rest of the tiles are not the starting hexagons
-				 * therefore since this statement is true, after it finds its neighbouring hexagon and dequques another hexagon and sets to current, then that hexagon becomes setdequeued to show we are done looking at it
-				 * if it really was an end tile or a start tile, then it wouldn't be going through this if statement 
-				 */
-				if(!checkHex.isStart())
-				checkHex.setDequeued();
-					}
-				}
-				maze.repaint();
-				
-				
-				
-			//repaint just to refresh the colors for the window
-			//if the boolean is true, it means that checkHex was an end tile, and we have found the end
-			if(isThereEnd==true){
+			SearchResult result = solver.solve(grid.getStart(), grid.getEnd());
+
+			//colour the path the solver found after the search, and let the window draw whatever it has not drawn yet
+			if (maze != null) {
+				if (result.getPath() != null)
+					maze.showPath(result.getPath());
+				maze.searchFinished();
+			}
+
+
+			//if the end was found, the result stores the length of the shortest path
+			if(result.isEndFound()){
 				System.out.println("The end was found \n");
-				System.out.println("Number of steps to get to finish: "+ (maze.getEnd().getSteps()+1) + "\n");
-				//end tiles stores the length of the shortest path
-				System.out.println("Hexagons in priority queue: " + hexagonInQueue + "\n");
-				System.out.println("Total number of steps taken: " + totalStepCounter + "\n");
-				
+				System.out.println("Number of steps to get to finish: "+ result.getSteps() + "\n");
+				System.out.println("Hexagons in priority queue: " + result.getHexagonsInQueue() + "\n");
+				System.out.println("Total number of steps taken: " + result.getTotalSteps() + "\n");
+				if (printPath)
+					System.out.println("Path: " + result.getPath().toDirectionString() + "\n");
+
 			}else{
-				//the boolean remains false, therefore it never went into the the "if checkHex isEnd" statement, and therefore exit was never found
+				//the exit was never found
 				System.out.println("The end was not found");
 				System.out.println("Number of steps to get to finish: " + "\n");
-				System.out.println("Hexagons in priority queue: " + hexagonInQueue + "\n");
-				System.out.println("Total number of steps taken:" + totalStepCounter + "\n");
+				System.out.println("Hexagons in priority queue: " + result.getHexagonsInQueue() + "\n");
+				System.out.println("Total number of steps taken:" + result.getTotalSteps() + "\n");
 				}
-			
-			
-			
+
+
+
 		//exceptions to be handled
+		} catch (NumberFormatException e) {
+			System.out.println("The pace, frame rate, epsilon and number of landmarks must be numbers: " + e.getMessage());
 		} catch (IllegalArgumentException e) {
 			System.out.println(e.getMessage());
 		} catch (FileNotFoundException e) {
@@ -148,13 +151,69 @@ public class MazeSolverToo {
 			;
 		} catch(UnknownMazeCharacterException e){
 			System.out.println(e.getMessage());
-			
+
 		} catch (InvalidNeighbourIndexException e){
 			System.out.println(e.getMessage());
-			
+
 		} catch (EmptyCollectionException e){
 			System.out.println(e.getMessage());
-		}		
-			
-		}					
-	}
\ No newline at end of file
+		}
+
+		}
+
+
+	/**
+	 * Creates the path finder for a search mode
+	 * @param: mode - "astar" for an AStarSolver, "bidirectional" for a BidirectionalSolver, "jps" for a JumpPointSolver
+	 *                or "hpa" for a HierarchicalSolver
+	 * @param: queueType - the priority queue of the AStarSolver, see createQueue, the other solvers always use IndexedIntPriorityQueues and only take "indexed"
+	 * @param: epsilon - how much the heuristic of the AStarSolver is weighted above 1, the other solvers only take 0
+	 * @param: grid - the grid that will be searched
+	 * @return: a path finder for the grid
+	 * @exception: IllegalArgumentException - if the mode or queue type is not one of the above, or epsilon or a queue other than "indexed" is given to another mode
+	 */
+	static PathFinder createSolver(String mode, String queueType, double epsilon, HexGrid grid) {
+		if (mode.equals("astar")) {
+			AStarSolver solver = new AStarSolver(grid, createQueue(queueType, grid.size()));
+			solver.setEpsilon(epsilon);
+			return solver;
+		}
+		if (epsilon != 0) {
+			throw new IllegalArgumentException("Only the astar mode can weight its heuristic");
+		}
+		if (!queueType.equals("indexed")) {
+			throw new IllegalArgumentException("Only the astar mode can pick its priority queue, the other modes always use the indexed heap");
+		}
+		if (mode.equals("bidirectional")) {
+			return new BidirectionalSolver(grid);
+		}
+		if (mode.equals("jps")) {
+			return new JumpPointSolver(grid);
+		}
+		if (mode.equals("hpa")) {
+			return new HierarchicalSolver(grid);
+		}
+		throw new IllegalArgumentException("Unknown search mode: " + mode);
+	}
+
+
+	/**
+	 * Creates the priority queue that the solver stores the cells in
+	 * @param: type - "linked" for the LinkedPriorityQueue, "heap" for the HeapPriorityQueue or "indexed" for the IndexedIntPriorityQueue
+	 * @param: cells - the number of cells in the grid that will be searched
+	 * @return: an empty priority queue of the requested type
+	 * @exception: IllegalArgumentException - if the type is not one of the above
+	 */
+	static PriorityQueueADT<Integer> createQueue(String type, int cells) {
+		if (type.equals("linked")) {
+			return new LinkedPriorityQueue<Integer>();
+		}
+		if (type.equals("heap")) {
+			return new HeapPriorityQueue<Integer>();
+		}
+		if (type.equals("indexed")) {
+			return new IndexedIntPriorityQueue(cells);
+		}
+		throw new IllegalArgumentException("Unknown queue type: " + type);
+	}
+	}
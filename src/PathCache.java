@@ -0,0 +1,276 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * - PathCache keeps the results of recent searches on one HexGrid, so a route that is asked for again is not searched again
+ * - It holds at most a fixed number of results, when it is full the result that was used longest ago is dropped (least recently used)
+ * - A result is kept for its start cell, end cell and the version of the grid it was found on, as soon as the grid is changed with
+ * *   HexGrid.setWall or setCost every result is dropped, so a result from before the change is never given out
+ * - A shortest path is made of shortest paths, so a query whose start and end are both on a cached shortest path is answered with the part
+ *   of that path between them (backwards if the end comes first, every step can be taken both ways at the same cost unless the grid has terrain costs)
+ *   This only holds for shortest paths, so it must be switched off for a solver that can return longer ones, like HierarchicalSolver
+ * - The cells of every cached path are also kept sorted, with the place of each on the path, so a cell is looked up with a binary search
+ * - The number of hits (whole and part of a path), misses, evictions and invalidations are counted
+ * - Every method is synchronized, so a cache can be shared by the threads of a QueryEngine, the searches themselves run outside of the lock
+ *
+ * @author Melissa Tran
+ */
+
+public class PathCache {
+
+	// The number of results kept when no capacity is given
+	public static final int DEFAULT_CAPACITY = 256;
+
+	// Attributes
+	private final HexGrid grid;
+	private final int capacity;
+	private final LinkedHashMap<Long, CachedPath> entries;	// in access order, the first one was used longest ago
+	private boolean subPaths = true;
+	private int version;	// the version of the grid every entry was found on
+
+	// Counters
+	private long hits;
+	private long subPathHits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+
+	//@param grid - the maze whose results are cached
+	public PathCache(HexGrid grid) {
+		this(grid, DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Creates an empty cache
+	 * @param: grid - the maze whose results are cached
+	 * @param: capacity - the largest number of results kept at once
+	 * @exception: IllegalArgumentException - if the capacity is less than 1
+	 */
+	public PathCache(HexGrid grid, final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("A path cache must hold at least one path");
+		}
+		this.grid = grid;
+		this.capacity = capacity;
+		this.version = grid.getVersion();
+		this.entries = new LinkedHashMap<Long, CachedPath>(16, 0.75f, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+				if (size() > capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+
+	//Returns the grid whose results are cached
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+
+	//Returns the largest number of results kept at once
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	//Turns answering a query with part of a cached path on or off, it is on unless the cached paths may not be the shortest ones
+	public synchronized void setSubPaths(boolean subPaths) {
+		this.subPaths = subPaths;
+	}
+
+
+	/**
+	 * Returns the result of a query that is in the cache, or part of a cached path that goes through both cells
+	 * A cached result is given as it was found, with the statistics of its search
+	 * A result made from part of a path is as short as the one a search would find, and has 0 for every search statistic
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the result, or null if the cache cannot answer the query
+	 */
+	public synchronized SearchResult get(int start, int end) {
+		checkVersion();
+		CachedPath entry = entries.get(key(start, end));
+		if (entry != null) {
+			hits++;
+			return entry.result;
+		}
+		if (subPaths) {
+			for (CachedPath cached : entries.values()) {
+				int from = cached.indexOf(start);
+				int to = from < 0 ? -1 : cached.indexOf(end);
+				if (to >= 0 && (to >= from || !grid.hasCosts())) {
+					// the entry was used, so it moves to the back of the access order (the loop stops here)
+					entries.get(key(cached.start, cached.end));
+					subPathHits++;
+					return cached.subPath(from, to);
+				}
+			}
+		}
+		misses++;
+		return null;
+	}
+
+
+	/**
+	 * Keeps the result of a search, dropping the result that was used longest ago if the cache is full
+	 * A result for an older version of the grid than the current one is not kept
+	 * @param: start - the cell the search started from
+	 * @param: end - the cell it looked for
+	 * @param: result - the result of the search
+	 * @param: version - the version of the grid the search was run on
+	 */
+	public synchronized void put(int start, int end, SearchResult result, int version) {
+		checkVersion();
+		if (version != this.version) {
+			return;
+		}
+		entries.put(key(start, end), new CachedPath(start, end, result));
+	}
+
+
+	/**
+	 * Answers a query from the cache, or runs a search and keeps its result
+	 * The search is not run while holding the lock, so the same solver must not be used by two threads at once
+	 * @param: solver - the solver to run if the cache cannot answer the query, it must search the same grid
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the cached result or the result of the search
+	 */
+	public SearchResult solve(PathFinder solver, int start, int end) {
+		SearchResult result = get(start, end);
+		if (result == null) {
+			int before = grid.getVersion();
+			result = solver.solve(start, end);
+			put(start, end, result, before);
+		}
+		return result;
+	}
+
+
+	//Drops every result, they are not counted as evictions
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+
+	//Returns the number of results in the cache
+	public synchronized int size() {
+		checkVersion();
+		return entries.size();
+	}
+
+
+	//Returns the number of queries that were in the cache
+	public synchronized long getHits() {
+		return hits;
+	}
+
+
+	//Returns the number of queries that were answered with part of a cached path
+	public synchronized long getSubPathHits() {
+		return subPathHits;
+	}
+
+
+	//Returns the number of queries the cache could not answer
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+
+	//Returns the number of results dropped to make room for a new one
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+
+	//Returns the number of times every result was dropped because the grid changed
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+
+	public synchronized String toString() {
+		return "hits: " + hits + ", sub path hits: " + subPathHits + ", misses: " + misses + ", evictions: " + evictions
+				+ ", invalidations: " + invalidations + ", size: " + entries.size() + "/" + capacity;
+	}
+
+
+	//Drops every result if the grid has changed since they were found
+	private void checkVersion() {
+		if (grid.getVersion() != version) {
+			if (!entries.isEmpty()) {
+				entries.clear();
+				invalidations++;
+			}
+			version = grid.getVersion();
+		}
+	}
+
+
+	//Returns the key of a query, the start and end in one long
+	private static Long key(int start, int end) {
+		return Long.valueOf((long) start << 32 | (end & 0xFFFFFFFFL));
+	}
+
+
+	// A cached result, with the cells of its path sorted so a cell can be found on the path
+	private class CachedPath {
+		private final int start;
+		private final int end;
+		private final SearchResult result;
+		private final int[] cells;	// the cells of the path in order, or null if the end was not found
+		private final long[] sorted;	// each cell in the high bits and its place on the path in the low bits, sorted
+
+		private CachedPath(int start, int end, SearchResult result) {
+			this.start = start;
+			this.end = end;
+			this.result = result;
+			if (result.getPath() != null) {
+				cells = result.getPath().toCells(grid);
+				sorted = new long[cells.length];
+				for (int i = 0; i < cells.length; i++) {
+					sorted[i] = (long) cells[i] << 32 | i;
+				}
+				Arrays.sort(sorted);
+			} else {
+				cells = null;
+				sorted = null;
+			}
+		}
+
+		//Returns the place of a cell on the path, or -1 if it is not on it
+		private int indexOf(int cell) {
+			if (sorted == null) {
+				return -1;
+			}
+			int i = Arrays.binarySearch(sorted, (long) cell << 32);
+			if (i < 0) {
+				i = -i - 1;
+			}
+			return i < sorted.length && (int) (sorted[i] >>> 32) == cell ? (int) sorted[i] : -1;
+		}
+
+		//Returns a result for the part of the path from one place to another, in either order, the steps are what the part costs
+		private SearchResult subPath(int from, int to) {
+			int length = Math.abs(to - from);
+			int[] part = new int[length + 1];
+			int step = to >= from ? 1 : -1;
+			int cost = 0;
+			for (int i = 0; i <= length; i++) {
+				part[i] = cells[from + i * step];
+				if (i > 0)
+					cost += grid.getCost(part[i]);
+			}
+			return new SearchResult(true, cost, 0, 0, 0, 0, 0, HexPath.fromCells(grid, part));
+		}
+	}
+
+}
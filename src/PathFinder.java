@@ -0,0 +1,24 @@
+/**
+ * - PathFinder is the interface to anything that finds the shortest path between two cells of a HexGrid
+ * - Every path finder returns the same SearchResult, so the statistics of different search modes can be compared
+ * - A path finder keeps its state between searches so it can be reused, it must only be used by one thread at a time
+ * - A wall is never part of a path: if the start or the end is a wall, every path finder returns SearchResult.notFound() without searching
+ *
+ * @author Melissa Tran
+ */
+
+public interface PathFinder
+{
+
+   /**
+    * Searches for the shortest path between two cells
+    * @param: start - the cell to start from
+    * @param: end - the cell to look for
+    * @return: the statistics of the search and the path to the end, the end is not found if the start or end is a wall
+    */
+   public SearchResult solve (int start, int end);
+
+
+   //Sets the listener that is told about every change to a cell, null for no listener
+   public void setListener (SearchListener listener);
+}
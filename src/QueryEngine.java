@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * - QueryEngine answers many start/end queries on one shared HexGrid at the same time
+ * - Every query reads the same grid, all of the state that changes during a search is in an AStarSolver
+ *   (its SearchContext and queue) that only one query uses at a time
+ * - The grid can be changed with HexGrid.setWall or setCost between queries, but not while any are running, a query only sees a change
+ *   made before it started (the version of the grid is read at the start of every query, and a cached result is dropped once the version moves on)
+ * - Solvers are kept in a pool and handed to whichever thread runs the next query, so the number of solvers (and the memory they take)
+ *   grows to the number of queries that actually run at once, not to the number of threads or queries
+ * - With a PathCache, a query that was already answered (or lies on a path that was) is not searched again
+ * - With a Landmarks table, every solver searches with a heuristic from the shared table instead of the cube distance
+ * - The queries run on a fixed thread pool, or on any ExecutorService the caller gives, such as a virtual thread executor on newer versions of Java
+ *
+ * @author Melissa Tran
+ */
+
+public class QueryEngine {
+
+	// Attributes
+	private final HexGrid grid;
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;	// true if the engine made the executor and has to shut it down
+	private final ConcurrentLinkedQueue<AStarSolver> idleSolvers;
+	private volatile PathCache cache;
+	private volatile Landmarks landmarks;
+
+
+	/**
+	 * Creates an engine that runs queries on its own thread pool
+	 * @param: grid - the maze every query searches
+	 * @param: threads - the number of queries that can run at the same time
+	 */
+	public QueryEngine(HexGrid grid, int threads) {
+		this(grid, Executors.newFixedThreadPool(threads), true);
+	}
+
+
+	/**
+	 * Creates an engine that runs queries on an executor owned by the caller, shutdown() will not shut it down
+	 * @param: grid - the maze every query searches
+	 * @param: executor - the executor to run the queries on
+	 */
+	public QueryEngine(HexGrid grid, ExecutorService executor) {
+		this(grid, executor, false);
+	}
+
+
+	private QueryEngine(HexGrid grid, ExecutorService executor, boolean ownsExecutor) {
+		this.grid = grid;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.idleSolvers = new ConcurrentLinkedQueue<AStarSolver>();
+	}
+
+
+	//Returns the grid the queries search
+	public HexGrid getGrid() {
+		return grid;
+	}
+
+
+	//Returns the cache the queries are answered from, or null if there is none
+	public PathCache getCache() {
+		return cache;
+	}
+
+
+	/**
+	 * Sets the cache the queries are answered from and their results are kept in, null for no cache
+	 * @exception: IllegalArgumentException - if the cache is for a different grid
+	 */
+	public void setCache(PathCache cache) {
+		if (cache != null && cache.getGrid() != grid) {
+			throw new IllegalArgumentException("The cache is for a different grid");
+		}
+		this.cache = cache;
+	}
+
+
+	//Returns the landmark table the searches take their heuristic from, or null for the cube distance
+	public Landmarks getLandmarks() {
+		return landmarks;
+	}
+
+
+	/**
+	 * Sets the landmark table the searches take their heuristic from, null for the cube distance
+	 * @exception: IllegalArgumentException - if the table is for a different grid
+	 */
+	public void setLandmarks(Landmarks landmarks) {
+		if (landmarks != null && landmarks.getGrid() != grid) {
+			throw new IllegalArgumentException("The landmark table is for a different grid");
+		}
+		this.landmarks = landmarks;
+	}
+
+
+	/**
+	 * Starts a query on the executor
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the result of the query once it is done
+	 */
+	public Future<SearchResult> submit(final int start, final int end) {
+		return executor.submit(new Callable<SearchResult>() {
+			public SearchResult call() {
+				return solve(start, end);
+			}
+		});
+	}
+
+
+	/**
+	 * Runs a query on the calling thread, from the cache if it has one, otherwise with a solver from the pool
+	 * @param: start - the cell to start from
+	 * @param: end - the cell to look for
+	 * @return: the statistics of the search
+	 */
+	public SearchResult solve(int start, int end) {
+		PathCache cache = this.cache;
+		SearchResult cached = cache != null ? cache.get(start, end) : null;
+		if (cached != null) {
+			return cached;
+		}
+		int version = grid.getVersion();
+		AStarSolver solver = idleSolvers.poll();
+		if (solver == null) {
+			solver = new AStarSolver(grid, new IndexedIntPriorityQueue(grid.size()));
+		}
+		try {
+			Landmarks landmarks = this.landmarks;
+			solver.setHeuristic(landmarks != null ? landmarks.newHeuristic() : null);
+			SearchResult result = solver.solve(start, end);
+			if (cache != null) {
+				cache.put(start, end, result, version);
+			}
+			return result;
+		} finally {
+			idleSolvers.offer(solver);
+		}
+	}
+
+
+	/**
+	 * Runs a batch of queries at the same time and waits for all of them
+	 * @param: starts - the start cell of each query
+	 * @param: ends - the end cell of each query, the same length as starts
+	 * @return: the results, in the same order as the queries
+	 * @throws InterruptedException - if the calling thread is interrupted while waiting
+	 * @throws ExecutionException - if a query threw an exception
+	 */
+	public List<SearchResult> solveAll(int[] starts, int[] ends) throws InterruptedException, ExecutionException {
+		if (starts.length != ends.length) {
+			throw new IllegalArgumentException("There must be the same number of start and end cells");
+		}
+		List<Future<SearchResult>> futures = new ArrayList<Future<SearchResult>>(starts.length);
+		for (int i = 0; i < starts.length; i++) {
+			futures.add(submit(starts[i], ends[i]));
+		}
+		List<SearchResult> results = new ArrayList<SearchResult>(starts.length);
+		for (Future<SearchResult> future : futures) {
+			results.add(future.get());
+		}
+		return results;
+	}
+
+
+	//Stops the thread pool once the queries that were already submitted are done, if the engine made it
+	public void shutdown() {
+		if (ownsExecutor) {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+/**
+ * - RenderQueue holds the changes a solver makes to its cells until a window has time to draw them
+ * - The solver adds changes as fast as it finds them and never waits for the window, the window takes them out a frame at a time on the Swing thread
+ * - Only the latest state of each cell is kept, in a byte per cell of the grid, so a cell that changes many times before it is drawn
+ *   is drawn once, in the state it ended up in
+ * - The cells waiting to be drawn are kept in a list in the order they first changed, each cell is in it at most once,
+ *   so however far the window falls behind the queue never holds more than one int and one byte per cell of the grid
+ * - Adding a change does not create an object, and taking changes out reuses the same arrays every frame
+ * - Adding and taking out can happen on different threads at the same time, but only one thread may take changes out
+ *
+ * @author Melissa Tran
+ */
+
+public class RenderQueue implements SearchListener {
+
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final Hexagon.HexType[] TYPES = Hexagon.HexType.values();
+	private static final byte NOT_WAITING = -1;	// the state of a cell that has no change waiting
+
+	// Attributes
+	private final byte[] states;	// the latest state of every cell that is waiting, NOT_WAITING for the others
+	private int[] cells = new int[DEFAULT_CAPACITY];	// the cells that are waiting, in the order they first changed
+	private int head;	// the first cell that has not been taken out
+	private int tail;	// one past the last cell that was added
+	private int[] outCells = new int[0];	// the changes being given to a listener, only used by drainTo
+	private byte[] outStates = new byte[0];
+
+
+	//@param size - the number of cells of the grid the changes are for
+	public RenderQueue(int size) {
+		this.states = new byte[size];
+		Arrays.fill(states, NOT_WAITING);
+	}
+
+
+	//Sets the latest state of a cell, and adds the cell to the end of the queue if it was not already waiting
+	public synchronized void cellChanged(int cell, Hexagon.HexType state) {
+		if (states[cell] == NOT_WAITING) {
+			if (tail == cells.length) {
+				makeRoom();
+			}
+			cells[tail++] = cell;
+		}
+		states[cell] = (byte) state.ordinal();
+	}
+
+
+	/**
+	 * Takes cells out of the front of the queue and gives their latest state to a listener, in the order they first changed
+	 * The changes are copied out first, so the listener runs without holding up the solver
+	 * @param: max - the largest number of cells to take out
+	 * @param: listener - told about each cell that was taken out, once
+	 * @return: the number of cells that were taken out
+	 */
+	public int drainTo(int max, SearchListener listener) {
+		int n;
+		synchronized (this) {
+			n = Math.min(max, tail - head);
+			if (n <= 0) {
+				return 0;
+			}
+			if (outCells.length < n) {
+				outCells = new int[Math.max(n, Math.min(2 * outCells.length, states.length))];
+				outStates = new byte[outCells.length];
+			}
+			for (int i = 0; i < n; i++) {
+				int cell = cells[head + i];
+				outCells[i] = cell;
+				outStates[i] = states[cell];
+				states[cell] = NOT_WAITING;
+			}
+			head += n;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			listener.cellChanged(outCells[i], TYPES[outStates[i]]);
+		}
+		return n;
+	}
+
+
+	//Returns the number of cells waiting in the queue
+	public synchronized int size() {
+		return tail - head;
+	}
+
+	//Checks if there are no changes waiting
+	public synchronized boolean isEmpty() {
+		return tail == head;
+	}
+
+	//Throws away every change that is waiting
+	public synchronized void clear() {
+		for (int i = head; i < tail; i++) {
+			states[cells[i]] = NOT_WAITING;
+		}
+		head = 0;
+		tail = 0;
+	}
+
+
+	//Moves the waiting cells to the front of the list, and doubles it if that does not free up at least half of it
+	//Every cell is in the list at most once, so it never grows past the number of cells of the grid
+	private void makeRoom() {
+		int waiting = tail - head;
+		if (waiting > cells.length / 2) {
+			cells = Arrays.copyOf(cells, Math.min(cells.length * 2, Math.max(states.length, DEFAULT_CAPACITY)));
+		}
+		System.arraycopy(cells, head, cells, 0, waiting);
+		head = 0;
+		tail = waiting;
+	}
+
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+/**
+ * - SearchContext holds the bookkeeping of one search through a HexGrid: which cells are enqueued or dequeued,
+ *   the steps it took to get to each cell, and the cell each one was reached from
+ * - It is made once for a grid and reused for every search, instead of clearing arrays (or re-reading the maze file) between searches
+ * - Every cell has a mark that says which search it was last touched by, a cell whose mark is from an older search counts as unreached,
+ *   so reset() is O(1) no matter how big the grid is
+ * - A context must only be used by one search at a time
+ *
+ * @author Melissa Tran
+ */
+
+public class SearchContext {
+
+	// Attributes
+	private final int[] marks;	// openMark or closedMark of the search that last reached each cell
+	private final int[] steps;	// Number of steps it takes to get to each cell, only valid while the mark is current
+	private final int[] parents;	// The cell each cell was reached from, only valid while the mark is current
+	private int openMark;
+	private int closedMark;
+
+
+	//@param cells - the number of cells in the grid that will be searched
+	public SearchContext(int cells) {
+		marks = new int[cells];
+		steps = new int[cells];
+		parents = new int[cells];
+		openMark = 0;
+		closedMark = 1;
+		reset();
+	}
+
+
+	/**
+	 * Forgets everything about the last search
+	 * Only the marks are changed, once in about a billion searches they run out and the whole mark array is cleared
+	 */
+	public void reset() {
+		if (closedMark >= Integer.MAX_VALUE - 2) {
+			Arrays.fill(marks, 0);
+			openMark = 0;
+			closedMark = 1;
+		}
+		openMark += 2;
+		closedMark += 2;
+	}
+
+
+	//Returns the number of cells this context can hold
+	public int size() {
+		return marks.length;
+	}
+
+	//Checks if the cell was reached by the current search, it is either enqueued or dequeued
+	public boolean isReached(int cell) {
+		return marks[cell] == openMark || marks[cell] == closedMark;
+	}
+
+	//Checks if the cell was reached by the current search and has not been dequeued yet
+	public boolean isEnqueued(int cell) {
+		return marks[cell] == openMark;
+	}
+
+	//Checks if the cell was dequeued by the current search
+	public boolean isDequeued(int cell) {
+		return marks[cell] == closedMark;
+	}
+
+	//Returns the number of steps it takes to get to the cell, or -1 if the current search has not reached it
+	public int getSteps(int cell) {
+		return isReached(cell) ? steps[cell] : -1;
+	}
+
+	//Returns the cell the current search reached this cell from, or HexGrid.NO_CELL for the start or a cell that was not reached
+	public int getParent(int cell) {
+		return isReached(cell) ? parents[cell] : HexGrid.NO_CELL;
+	}
+
+
+	/**
+	 * Records that the current search reached a cell (for the first time, or by a shorter route) and marks it as enqueued
+	 * @param: cell - the cell that was reached
+	 * @param: s - the number of steps it takes to get there
+	 * @param: parent - the cell it was reached from, HexGrid.NO_CELL for the start
+	 */
+	public void reach(int cell, int s, int parent) {
+		marks[cell] = openMark;
+		steps[cell] = s;
+		parents[cell] = parent;
+	}
+
+	//Marks a cell that the current search reached as dequeued
+	public void close(int cell) {
+		marks[cell] = closedMark;
+	}
+
+}
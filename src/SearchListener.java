@@ -0,0 +1,17 @@
+/**
+ * - SearchListener is told about every change a solver makes to the state of a cell while it searches a HexGrid
+ * - The Maze window implements this interface to colour its hexagons, a solver without a window simply has no listener
+ *
+ * @author Melissa Tran
+ */
+
+public interface SearchListener
+{
+
+   /**
+    * Called when a cell changes state during the search
+    * @param: cell - the cell number in the HexGrid
+    * @param: state - START_PROCESSED, CURRENT, ENQUEUED, DEQUEUED or END_PROCESSED
+    */
+   public void cellChanged (int cell, Hexagon.HexType state);
+}
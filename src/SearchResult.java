@@ -0,0 +1,98 @@
+/**
+ * - SearchResult holds the statistics of one search through a HexGrid
+ * - These are the same numbers that MazeSolverToo prints when it is done, plus the counters the batch solver reports
+ * - When the end was found it also holds the path to it as a HexPath
+ *
+ * @author Melissa Tran
+ */
+
+public class SearchResult {
+
+	private boolean endFound;
+	private int steps;
+	private int hexagonsInQueue;
+	private int expansions;
+	private int enqueues;
+	private int decreaseKeys;
+	private int peakQueueSize;
+	private HexPath path;
+
+
+	/**
+	 * @param: endFound - true if the end tile was reached
+	 * @param: steps - the number of steps on the shortest path from the start to the end (what the path costs on a grid with terrain costs), -1 if the end was not found
+	 * @param: hexagonsInQueue - the number of hexagons still in the priority queue when the search stopped
+	 * @param: expansions - the number of hexagons that were dequeued
+	 * @param: enqueues - the number of hexagons that were enqueued
+	 * @param: decreaseKeys - the number of times an enqueued hexagon was moved forward
+	 * @param: peakQueueSize - the largest number of hexagons that were in the queue at once
+	 * @param: path - the path from the start to the end, null if the end was not found
+	 */
+	public SearchResult(boolean endFound, int steps, int hexagonsInQueue, int expansions, int enqueues, int decreaseKeys, int peakQueueSize,
+			HexPath path) {
+		this.endFound = endFound;
+		this.steps = steps;
+		this.hexagonsInQueue = hexagonsInQueue;
+		this.expansions = expansions;
+		this.enqueues = enqueues;
+		this.decreaseKeys = decreaseKeys;
+		this.peakQueueSize = peakQueueSize;
+		this.path = path;
+	}
+
+	//@return the result of a search that was not run because there is nothing to find, eg. the start or end is a wall, nothing was expanded
+	public static SearchResult notFound() {
+		return new SearchResult(false, -1, 0, 0, 0, 0, 0, null);
+	}
+
+	//@return true if the end tile was reached
+	public boolean isEndFound() {
+		return endFound;
+	}
+
+	//@return the number of steps it takes to get to the end, or -1 if the end was not found
+	public int getSteps() {
+		return steps;
+	}
+
+	//@return the number of hexagons left in the priority queue
+	public int getHexagonsInQueue() {
+		return hexagonsInQueue;
+	}
+
+	//@return the number of hexagons that were dequeued
+	public int getExpansions() {
+		return expansions;
+	}
+
+	//@return the number of hexagons that were enqueued
+	public int getEnqueues() {
+		return enqueues;
+	}
+
+	//@return the number of times an enqueued hexagon was moved forward
+	public int getDecreaseKeys() {
+		return decreaseKeys;
+	}
+
+	//@return the largest number of hexagons that were in the queue at once
+	public int getPeakQueueSize() {
+		return peakQueueSize;
+	}
+
+	//@return the path from the start to the end, or null if the end was not found
+	public HexPath getPath() {
+		return path;
+	}
+
+	//@return the total number of enqueue, dequeue and decrease key operations
+	public int getTotalSteps() {
+		return expansions + enqueues + decreaseKeys;
+	}
+
+	public String toString() {
+		return getClass().getName() + "[endFound=" + endFound + ",steps=" + steps
+				+ ",hexagonsInQueue=" + hexagonsInQueue + ",expansions=" + expansions + ",enqueues=" + enqueues
+				+ ",decreaseKeys=" + decreaseKeys + ",peakQueueSize=" + peakQueueSize + "]";
+	}
+}